@@ -0,0 +1,38 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/** Deterministic loader populations shared by the benchmarks. */
+final class BenchLoaders {
+
+    static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    private BenchLoaders() {}
+
+    /**
+     * {@code count} loaders spread over three worlds and roughly {@code count / 10} owners; one in
+     * five is 5x5. Expiry times fall uniformly within the next 30 days of {@code nowMs}.
+     */
+    static List<LoaderRecord> generate(int count, long nowMs, long seed) {
+        Random rnd = new Random(seed);
+        int ownerCount = Math.max(1, count / 10);
+        UUID[] owners = new UUID[ownerCount];
+        for (int i = 0; i < ownerCount; i++) owners[i] = new UUID(rnd.nextLong(), rnd.nextLong());
+
+        // Spread loaders so the 5x5 footprints overlap occasionally, as on a real server.
+        int span = Math.max(256, (int) Math.sqrt(count) * 64);
+        List<LoaderRecord> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LoaderSize size = rnd.nextInt(5) == 0 ? LoaderSize.FIVE_BY_FIVE : LoaderSize.ONE_BY_ONE;
+            long created = nowMs - rnd.nextInt(86_400_000);
+            long expires = nowMs + 1 + (long) (rnd.nextDouble() * 30L * 86_400_000L);
+            out.add(new LoaderRecord(new UUID(rnd.nextLong(), rnd.nextLong()), owners[rnd.nextInt(ownerCount)],
+                    WORLDS[rnd.nextInt(WORLDS.length)], rnd.nextInt(span) - span / 2, 64 + rnd.nextInt(64),
+                    rnd.nextInt(span) - span / 2, size, created, expires));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rezzcraft.rezzloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The once-a-second expiry check. {@code idleCheck} is the common case where nothing is due;
+ * {@code expireBatch} expires the earliest 1% and re-queues them so every invocation sees the same
+ * queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpiryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int loaders;
+
+    private final ExpiryQueue queue = new ExpiryQueue();
+    private long nowMs;
+    private long batchCutoffMs;
+
+    @Setup
+    public void setup() {
+        nowMs = System.currentTimeMillis();
+        List<LoaderRecord> records = BenchLoaders.generate(loaders, nowMs, 42L);
+        for (LoaderRecord r : records) queue.add(r);
+        long[] expiries = records.stream().mapToLong(r -> r.expiresAtMs).sorted().toArray();
+        batchCutoffMs = expiries[Math.max(0, expiries.length / 100 - 1)];
+    }
+
+    @Benchmark
+    public List<LoaderRecord> idleCheck() {
+        return queue.pollDue(nowMs);
+    }
+
+    @Benchmark
+    public int expireBatch() {
+        List<LoaderRecord> due = queue.pollDue(batchCutoffMs);
+        for (LoaderRecord r : due) queue.add(r);
+        return due.size();
+    }
+}
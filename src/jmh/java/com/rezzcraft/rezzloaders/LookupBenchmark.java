@@ -0,0 +1,83 @@
+package com.rezzcraft.rezzloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lookups behind {@code LoaderManager.getByBlock}, {@code getCoveringChunk} and
+ * {@code countForOwner}, which run from block and chunk events. The manager itself needs a running
+ * server, so this drives the {@link LoaderIndex} and {@link OwnerIndex} it delegates to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LookupBenchmark {
+
+    private static final int PROBES = 1024; // power of two
+
+    @Param({"1000", "10000", "100000"})
+    public int loaders;
+
+    private final LoaderIndex index = new LoaderIndex();
+    private final OwnerIndex owners = new OwnerIndex();
+    private LoaderRecord[] hits;
+    private UUID[] ownerProbes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<LoaderRecord> records = BenchLoaders.generate(loaders, System.currentTimeMillis(), 42L);
+        for (LoaderRecord r : records) {
+            index.add(r);
+            owners.add(r);
+        }
+        hits = new LoaderRecord[PROBES];
+        ownerProbes = new UUID[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = records.get((int) ((long) i * records.size() / PROBES));
+            ownerProbes[i] = hits[i].owner;
+        }
+    }
+
+    private LoaderRecord probe() {
+        return hits[next++ & (PROBES - 1)];
+    }
+
+    @Benchmark
+    public LoaderRecord getByBlockHit() {
+        LoaderRecord r = probe();
+        return index.getAt(r.world, r.x, r.y, r.z);
+    }
+
+    @Benchmark
+    public LoaderRecord getByBlockMiss() {
+        LoaderRecord r = probe();
+        return index.getAt(r.world, r.x, r.y + 1, r.z);
+    }
+
+    @Benchmark
+    public List<LoaderRecord> getCoveringChunk() {
+        LoaderRecord r = probe();
+        return index.getCovering(r.world, r.x >> 4, r.z >> 4);
+    }
+
+    @Benchmark
+    public int countForOwner() {
+        return owners.count(ownerProbes[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public int countForOwnerBySize() {
+        return owners.count(ownerProbes[next++ & (PROBES - 1)], LoaderSize.FIVE_BY_FIVE);
+    }
+}
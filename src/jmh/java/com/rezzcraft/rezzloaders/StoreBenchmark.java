@@ -0,0 +1,79 @@
+package com.rezzcraft.rezzloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Full save and load of every loader, as done by {@code saveAll}/{@code loadAll}, for the yaml and
+ * journal backends. Writes go to a temporary directory; SQLite is left out because its cost is
+ * dominated by the driver and disk sync rather than by our code.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StoreBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int loaders;
+
+    @Param({"yaml", "journal"})
+    public String store;
+
+    private final Logger logger = Logger.getLogger("RezzLoadersBench");
+    private File dir;
+    private List<LoaderRecord> records;
+    private LoaderStore saveStore;
+    private LoaderStore loadStore;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("rezzloaders-bench").toFile();
+        records = BenchLoaders.generate(loaders, System.currentTimeMillis(), 42L);
+        saveStore = open(new File(dir, "save"));
+        loadStore = open(new File(dir, "load"));
+        loadStore.importAll(records);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        saveStore.close();
+        loadStore.close();
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private LoaderStore open(File folder) {
+        folder.mkdirs();
+        return store.equals("journal")
+                ? new JournalLoaderStore(folder, logger, Long.MAX_VALUE, Long.MAX_VALUE)
+                : new YamlLoaderStore(new File(folder, "loaders.yml"), logger);
+    }
+
+    @Benchmark
+    public void saveAll() throws IOException {
+        saveStore.importAll(records);
+    }
+
+    @Benchmark
+    public List<LoaderRecord> loadAll() throws IOException {
+        return loadStore.loadAll();
+    }
+}
@@ -0,0 +1,37 @@
+package com.rezzcraft.rezzloaders;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Duration formatting (hologram and chat text) and parsing (command arguments). */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeUtilBenchmark {
+
+    private static final long[] DURATIONS_MS = {42_000L, 3_599_000L, 7_260_000L, 90_061_000L, 2_592_000_000L};
+    private static final String[] INPUTS = {"3600", "30m", "1h30m", "2d 12h", "7d"};
+
+    private int next;
+
+    @Benchmark
+    public String formatDuration() {
+        return TimeUtil.formatDuration(DURATIONS_MS[next++ % DURATIONS_MS.length]);
+    }
+
+    @Benchmark
+    public String formatDurationCoarse() {
+        return TimeUtil.formatDurationCoarse(DURATIONS_MS[next++ % DURATIONS_MS.length]);
+    }
+
+    @Benchmark
+    public Long parseDurationSeconds() {
+        return TimeUtil.parseDurationSeconds(INPUTS[next++ % INPUTS.length]);
+    }
+}
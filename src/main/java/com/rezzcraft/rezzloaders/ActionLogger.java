@@ -4,61 +4,256 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Action log with a non-blocking {@link #log} path.
+ *
+ * Callers only enqueue; a background thread formats, echoes selected events to the console and
+ * writes to logs/actions.log, flushing once per batch ({@code logging.flush-batch-size} lines or
+ * {@code logging.flush-interval-ms}, whichever comes first). The file is rotated by size and/or
+ * day and rotated files are gzipped.
+ */
 public class ActionLogger {
 
+    private static final class Entry {
+        final long timeMs;
+        final String event;
+        final String details;
+
+        Entry(long timeMs, String event, String details) {
+            this.timeMs = timeMs;
+            this.event = event;
+            this.details = details;
+        }
+    }
+
     private final JavaPlugin plugin;
     private final boolean fileEnabled;
     private final File logFile;
+    private final boolean consoleAll;
+    private final Set<String> consoleEvents = new HashSet<>();
+    private final int flushBatchSize;
+    private final long flushIntervalNanos;
+    private final long maxBytes;
+    private final boolean rotateDaily;
+    private final boolean compress;
+    private final int keepFiles;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // writer thread only
     private BufferedWriter writer;
+    private long fileBytes;
+    private LocalDate fileDate;
 
     private static final DateTimeFormatter TS = DateTimeFormatter
             .ofPattern("yyyy-MM-dd HH:mm:ss")
             .withZone(ZoneId.systemDefault());
+    private static final int NEWLINE_BYTES = System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
 
     public ActionLogger(JavaPlugin plugin) {
         this.plugin = plugin;
         this.fileEnabled = plugin.getConfig().getBoolean("logging.file-enabled", true);
         String fname = plugin.getConfig().getString("logging.file-name", "actions.log");
 
+        List<String> console = plugin.getConfig().isList("logging.console-events")
+                ? plugin.getConfig().getStringList("logging.console-events")
+                : List.of("*");
+        for (String e : console) {
+            if (e == null) continue;
+            consoleEvents.add(e.trim().toUpperCase(Locale.ROOT));
+        }
+        this.consoleAll = consoleEvents.contains("*");
+
+        this.flushBatchSize = Math.max(1, plugin.getConfig().getInt("logging.flush-batch-size", 64));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10L, plugin.getConfig().getLong("logging.flush-interval-ms", 1000L)));
+        this.maxBytes = Math.max(0L, plugin.getConfig().getLong("logging.rotate.max-size-mb", 10L)) * 1024L * 1024L;
+        this.rotateDaily = plugin.getConfig().getBoolean("logging.rotate.daily", true);
+        this.compress = plugin.getConfig().getBoolean("logging.rotate.compress", true);
+        this.keepFiles = plugin.getConfig().getInt("logging.rotate.keep-files", 14);
+
         File dir = new File(plugin.getDataFolder(), "logs");
         if (!dir.exists()) dir.mkdirs();
 
         this.logFile = new File(dir, fname);
 
         if (fileEnabled) {
+            openWriter();
+        }
+
+        this.writerThread = new Thread(this::runWriter, "RezzLoaders-ActionLog");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void log(String message) {
+        log("INFO", message);
+    }
+
+    /** Enqueues one action; never blocks on I/O. */
+    public void log(String event, String details) {
+        queue.add(new Entry(System.currentTimeMillis(), event, details));
+        if (queued.incrementAndGet() >= flushBatchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /** Enqueues one action per entry of {@code details}, waking the writer at most once. */
+    public void logAll(String event, List<String> details) {
+        if (details.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (String d : details) queue.add(new Entry(now, event, d));
+        if (queued.addAndGet(details.size()) >= flushBatchSize) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /** Stops the writer thread and synchronously drains whatever is still queued. */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) return; // still draining; it closes the file itself
+        drain();
+        closeWriter();
+    }
+
+    private void runWriter() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            drain();
+        }
+        drain();
+        closeWriter();
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>();
+        Entry e;
+        while ((e = queue.poll()) != null) batch.add(e);
+        if (batch.isEmpty()) return;
+        queued.addAndGet(-batch.size());
+
+        for (Entry entry : batch) {
+            String line = "[" + TS.format(Instant.ofEpochMilli(entry.timeMs)) + "] [" + entry.event + "] " + entry.details;
+            if (consoleAll || consoleEvents.contains(entry.event)) {
+                plugin.getLogger().info(line);
+            }
+            if (!fileEnabled) continue;
+
+            maybeRotate(entry.timeMs);
+            if (writer == null) continue;
+            try {
+                writer.write(line);
+                writer.newLine();
+                // Bytes as written, so the count matches logFile.length() after a reopen.
+                fileBytes += line.getBytes(StandardCharsets.UTF_8).length + NEWLINE_BYTES;
+            } catch (IOException ex) {
+                plugin.getLogger().warning("Failed to write action log: " + ex.getMessage());
+            }
+        }
+
+        if (writer != null) {
             try {
-                this.writer = new BufferedWriter(new FileWriter(logFile, true));
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to open action log file: " + e.getMessage());
+                writer.flush();
+            } catch (IOException ex) {
+                plugin.getLogger().warning("Failed to write action log: " + ex.getMessage());
             }
         }
     }
 
-    public synchronized void log(String message) {
-        log("INFO", message);
+    private void maybeRotate(long timeMs) {
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(timeMs), ZoneId.systemDefault());
+        boolean bySize = maxBytes > 0 && fileBytes >= maxBytes;
+        boolean byDay = rotateDaily && fileDate != null && !day.equals(fileDate) && fileBytes > 0;
+        if (!bySize && !byDay) return;
+
+        LocalDate stamp = fileDate != null ? fileDate : day;
+        closeWriter();
+        try {
+            String base = logFile.getName().endsWith(".log")
+                    ? logFile.getName().substring(0, logFile.getName().length() - 4)
+                    : logFile.getName();
+            File rotated;
+            int n = 1;
+            do {
+                rotated = new File(logFile.getParentFile(), base + "-" + stamp + "." + n + ".log");
+                n++;
+            } while (rotated.exists() || new File(rotated.getPath() + ".gz").exists());
+
+            if (logFile.renameTo(rotated) && compress) {
+                gzip(rotated);
+            }
+            pruneOldFiles(base);
+        } catch (IOException ex) {
+            plugin.getLogger().warning("Failed to rotate action log: " + ex.getMessage());
+        }
+        openWriter();
+        fileDate = day;
+    }
+
+    private static void gzip(File file) throws IOException {
+        File gz = new File(file.getPath() + ".gz");
+        try (InputStream in = new FileInputStream(file);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(gz))) {
+            in.transferTo(out);
+        }
+        if (!file.delete()) file.deleteOnExit();
     }
 
-    public synchronized void log(String event, String details) {
-        String line = "[" + TS.format(Instant.now()) + "] [" + event + "] " + details;
-        plugin.getLogger().info(line);
+    private void pruneOldFiles(String base) {
+        if (keepFiles <= 0) return;
+        File[] rotated = logFile.getParentFile().listFiles((d, name) -> name.startsWith(base + "-")
+                && (name.endsWith(".log") || name.endsWith(".log.gz")));
+        if (rotated == null || rotated.length <= keepFiles) return;
+        Arrays.sort(rotated, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (int i = 0; i < rotated.length - keepFiles; i++) {
+            rotated[i].delete();
+        }
+    }
 
-        if (!fileEnabled || writer == null) return;
+    private void openWriter() {
         try {
-            writer.write(line);
-            writer.newLine();
-            writer.flush();
+            this.writer = new BufferedWriter(new FileWriter(logFile, StandardCharsets.UTF_8, true));
+            this.fileBytes = logFile.length();
+            this.fileDate = logFile.exists() && fileBytes > 0
+                    ? LocalDate.ofInstant(Instant.ofEpochMilli(logFile.lastModified()), ZoneId.systemDefault())
+                    : LocalDate.now();
         } catch (IOException e) {
-            plugin.getLogger().warning("Failed to write action log: " + e.getMessage());
+            plugin.getLogger().warning("Failed to open action log file: " + e.getMessage());
         }
     }
 
-    public synchronized void close() {
+    private void closeWriter() {
         if (writer != null) {
             try {
                 writer.flush();
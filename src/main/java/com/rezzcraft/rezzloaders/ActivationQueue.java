@@ -0,0 +1,153 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Ramped (re)activation of many loaders, e.g. after a TPS suspension ends or at startup.
+ *
+ * Settings are read under a path prefix ({@code tps.resume} or {@code startup}). Pending loaders
+ * are ordered by {@code <path>.priority} and released from {@link #tick()} {@code <path>.batch-size}
+ * at a time every {@code <path>.interval-ticks}. While recent MSPT is above {@code <path>.max-mspt}
+ * the ramp holds instead of adding more load. Callers hold the {@link LoaderCore} monitor around
+ * every method.
+ */
+public class ActivationQueue {
+
+    private final LoaderSettings settings;
+    private final String path;
+    private final String name;
+    private final int defaultBatch;
+    private final long defaultInterval;
+    private final LoaderWorld world;
+    private final LoaderClock clock;
+    private final Logger logger;
+    private final DoubleSupplier mspt;
+
+    private LinkedHashSet<LoaderRecord> pending = new LinkedHashSet<>();
+    private long tick;
+    private boolean paused;
+    private int activatedThisRamp;
+
+    /**
+     * @param path settings prefix
+     * @param name used in log lines, e.g. {@code Loader ramp}
+     */
+    public ActivationQueue(LoaderSettings settings, String path, String name, int defaultBatch, long defaultInterval,
+                           LoaderWorld world, LoaderClock clock, Logger logger, DoubleSupplier mspt) {
+        this.settings = settings;
+        this.path = path;
+        this.name = name;
+        this.defaultBatch = defaultBatch;
+        this.defaultInterval = defaultInterval;
+        this.world = world;
+        this.clock = clock;
+        this.logger = logger;
+        this.mspt = mspt;
+    }
+
+    /** Adds loaders to the ramp; the whole queue is re-ordered by the configured priority. */
+    public void submit(Collection<LoaderRecord> records) {
+        if (records.isEmpty()) return;
+        List<LoaderRecord> all = new ArrayList<>(pending);
+        all.addAll(records);
+        all.sort(priority(settings.getStringList(path + ".priority"), world::isOnline, clock.millis()));
+        pending = new LinkedHashSet<>(all);
+    }
+
+    public void remove(LoaderRecord rec) {
+        pending.remove(rec);
+    }
+
+    public boolean contains(LoaderRecord rec) {
+        return pending.contains(rec);
+    }
+
+    public void clear() {
+        drain();
+    }
+
+    /** Empties the queue and returns what was pending, in activation order. */
+    public List<LoaderRecord> drain() {
+        List<LoaderRecord> out = new ArrayList<>(pending);
+        pending.clear();
+        paused = false;
+        activatedThisRamp = 0;
+        return out;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Runs every tick; returns the next batch to activate when one is due and the server has
+     * headroom, otherwise an empty list.
+     */
+    public List<LoaderRecord> tick() {
+        tick++;
+        if (pending.isEmpty()) return Collections.emptyList();
+        long interval = Math.max(1L, settings.getLong(path + ".interval-ticks", defaultInterval));
+        if (tick % interval != 0) return Collections.emptyList();
+
+        double maxMspt = settings.getDouble(path + ".max-mspt", 45.0);
+        double current = mspt.getAsDouble();
+        if (current > maxMspt) {
+            if (!paused) {
+                logger.info("[RezzLoaders] " + name + " paused: " + String.format(Locale.ROOT, "%.1f", current)
+                        + " mspt > " + maxMspt + " (" + pending.size() + " loaders waiting).");
+            }
+            paused = true;
+            return Collections.emptyList();
+        }
+        paused = false;
+
+        int batch = Math.max(1, settings.getInt(path + ".batch-size", defaultBatch));
+        List<LoaderRecord> out = new ArrayList<>(Math.min(batch, pending.size()));
+        Iterator<LoaderRecord> it = pending.iterator();
+        for (int i = 0; i < batch && it.hasNext(); i++) {
+            out.add(it.next());
+            it.remove();
+            activatedThisRamp++;
+        }
+        if (pending.isEmpty()) {
+            logger.info("[RezzLoaders] " + name + " complete: " + activatedThisRamp + " loaders active.");
+            activatedThisRamp = 0;
+        }
+        return out;
+    }
+
+    /**
+     * Activation order from config keys, earlier keys taking precedence: {@code online} (owner
+     * online first), {@code size} (1x1 before 5x5) and {@code remaining} (least time left first).
+     */
+    static Comparator<LoaderRecord> priority(List<String> keys, Predicate<UUID> online, long now) {
+        if (keys == null || keys.isEmpty()) keys = List.of("online", "size", "remaining");
+        Comparator<LoaderRecord> cmp = (a, b) -> 0;
+        for (String key : keys) {
+            switch (key.toLowerCase(Locale.ROOT)) {
+                case "online" -> cmp = cmp.thenComparing(r -> !online.test(r.owner));
+                case "size" -> cmp = cmp.thenComparingInt(LoaderIndex::radiusOf);
+                case "remaining" -> cmp = cmp.thenComparingLong(r -> r.expiresAtMs - now);
+                default -> {
+                    // unknown keys are ignored
+                }
+            }
+        }
+        return cmp;
+    }
+}
@@ -0,0 +1,263 @@
+package com.rezzcraft.rezzloaders;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link LoaderWorld}, {@link LoaderScheduler} and {@link LoaderSettings} backed by the running
+ * server, plus the plugin's thread dispatch.
+ *
+ * On a region-threaded server (Folia) repeating tasks run on the global region scheduler, chunk
+ * work on the region that owns the chunk and entity work on the entity's scheduler; elsewhere all of
+ * it runs on the main thread. Work for a chunk or entity the calling thread already owns runs
+ * inline, so on Paper nothing changes for callers that are already on the main thread.
+ */
+public final class BukkitPlatform implements LoaderWorld, LoaderScheduler, LoaderSettings {
+
+    /** True when the server ticks regions on separate threads. */
+    public static final boolean REGIONIZED = detectRegionized();
+
+    /** Recorded tick durations: one minute at 20 TPS. */
+    private static final int TICK_HISTORY = 1200;
+    /** Interval beyond which a tick counts as overrun when sampling intervals (50 ms plus jitter). */
+    private static final double OVERRUN_MS = 55.0;
+
+    private final RezzLoadersPlugin plugin;
+    // Tick samples are written and read on the main thread, or the global region thread when regionized.
+    private final double[] tickMs = new double[TICK_HISTORY];
+    private int tickHead;
+    private int tickCount;
+    private long lastTickNanos;
+    private final Map<UUID, Long> lastSeen = new ConcurrentHashMap<>();
+    private final Set<UUID> lastSeenFetches = ConcurrentHashMap.newKeySet();
+
+    public BukkitPlatform(RezzLoadersPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isWorldLoaded(String world) {
+        return Bukkit.getWorld(world) != null;
+    }
+
+    @Override
+    public void addChunkTicket(String world, int chunkX, int chunkZ) {
+        World w = Bukkit.getWorld(world);
+        if (w != null) w.addPluginChunkTicket(chunkX, chunkZ, plugin);
+    }
+
+    @Override
+    public void removeChunkTicket(String world, int chunkX, int chunkZ) {
+        World w = Bukkit.getWorld(world);
+        if (w != null) w.removePluginChunkTicket(chunkX, chunkZ, plugin);
+    }
+
+    @Override
+    public boolean isOnline(UUID player) {
+        return Bukkit.getPlayer(player) != null;
+    }
+
+    /** A player left; remembered so parking does not have to read their player data. */
+    public void playerQuit(UUID player) {
+        lastSeen.put(player, System.currentTimeMillis());
+    }
+
+    /**
+     * Quit times seen by this server run, otherwise the player's stored last-seen time. Reading that
+     * touches the player data file, so on a tick thread an unknown player is fetched in the
+     * background and counts as just seen until the result is in.
+     */
+    @Override
+    public long lastSeen(UUID player) {
+        Long seen = lastSeen.get(player);
+        if (seen != null) return seen;
+        if (!Bukkit.isPrimaryThread()) {
+            return lastSeen.computeIfAbsent(player, id -> Bukkit.getOfflinePlayer(id).getLastSeen());
+        }
+        if (lastSeenFetches.add(player)) {
+            runAsync(() -> {
+                lastSeen.putIfAbsent(player, Bukkit.getOfflinePlayer(player).getLastSeen());
+                lastSeenFetches.remove(player);
+            });
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Starts recording tick durations for {@link #recentMspt}. Paper reports each tick's duration in
+     * {@code ServerTickEndEvent}. Without it (Folia, plain Spigot) the interval between runs of a
+     * one-tick global task is used instead: an interval past the 50 ms budget is an overrun and is
+     * recorded as is, an on-time tick only shows it fit and is recorded as 0, so shedding there
+     * reacts to real lag only.
+     */
+    public void startTickSampling() {
+        if (!REGIONIZED && hasClass("com.destroystokyo.paper.event.server.ServerTickEndEvent")) {
+            plugin.getServer().getPluginManager().registerEvents(new TickEndListener(), plugin);
+        } else {
+            repeat(this::sampleTickInterval, 1L, 1L);
+        }
+    }
+
+    /** Mean of the last {@code ticks} recorded tick durations; 0 before any were recorded. */
+    @Override
+    public double recentMspt(int ticks) {
+        int n = Math.min(Math.max(1, ticks), tickCount);
+        if (n == 0) return 0.0;
+        double sum = 0.0;
+        for (int i = 1; i <= n; i++) {
+            sum += tickMs[Math.floorMod(tickHead - i, tickMs.length)];
+        }
+        return sum / n;
+    }
+
+    private void recordTick(double ms) {
+        tickMs[tickHead] = ms;
+        tickHead = (tickHead + 1) % tickMs.length;
+        if (tickCount < tickMs.length) tickCount++;
+    }
+
+    private void sampleTickInterval() {
+        long now = System.nanoTime();
+        if (lastTickNanos != 0L) {
+            double ms = (now - lastTickNanos) / 1_000_000.0;
+            recordTick(ms > OVERRUN_MS ? ms : 0.0);
+        }
+        lastTickNanos = now;
+    }
+
+    /** Feeds Paper's per-tick durations; main thread. */
+    private final class TickEndListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onTickEnd(ServerTickEndEvent event) {
+            recordTick(event.getTickDuration());
+        }
+    }
+
+    /** Repeats {@code task} on the main thread, or the global region thread when regionized. */
+    @Override
+    public Task repeat(Runnable task, long delayTicks, long periodTicks) {
+        if (REGIONIZED) {
+            ScheduledTask t = Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, st -> task.run(), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+            return t::cancel;
+        }
+        BukkitTask t = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return t::cancel;
+    }
+
+    /** Runs {@code task} on the thread that owns the chunk; inline if that is the current thread. */
+    @Override
+    public void runAt(String world, int chunkX, int chunkZ, Runnable task) {
+        World w = Bukkit.getWorld(world);
+        if (w != null) runAt(w, chunkX, chunkZ, task);
+    }
+
+    public void runAt(World w, int chunkX, int chunkZ, Runnable task) {
+        // A disabled plugin cannot schedule; the server drops its chunk tickets itself.
+        if (REGIONIZED) {
+            if (Bukkit.isOwnedByCurrentRegion(w, chunkX, chunkZ)) task.run();
+            else if (plugin.isEnabled()) Bukkit.getRegionScheduler().execute(plugin, w, chunkX, chunkZ, task);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /** Runs {@code task} on the chunk's owning thread after {@code delayTicks}. */
+    public void runAtLater(String world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        World w = Bukkit.getWorld(world);
+        if (w == null) return;
+        if (REGIONIZED) {
+            Bukkit.getRegionScheduler().runDelayed(plugin, w, chunkX, chunkZ, st -> task.run(), Math.max(1L, delayTicks));
+        } else {
+            Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        }
+    }
+
+    /** Runs {@code task} on the entity's owning thread; dropped if the entity is removed first. */
+    public void runFor(Entity entity, Runnable task) {
+        if (REGIONIZED) {
+            if (Bukkit.isOwnedByCurrentRegion(entity)) task.run();
+            else entity.getScheduler().execute(plugin, task, null, 1L);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /** Runs {@code task} on the main thread, or the global region thread when regionized. */
+    public void runGlobal(Runnable task) {
+        if (REGIONIZED) {
+            if (Bukkit.isGlobalTickThread()) task.run();
+            else Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /** Runs {@code task} where it may message {@code sender}: the player's thread, or the global one. */
+    public void reply(CommandSender sender, Runnable task) {
+        if (sender instanceof Entity e) runFor(e, task);
+        else runGlobal(task);
+    }
+
+    public void runAsync(Runnable task) {
+        if (REGIONIZED) Bukkit.getAsyncScheduler().runNow(plugin, st -> task.run());
+        else Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    private static boolean detectRegionized() {
+        return hasClass("io.papermc.paper.threadedregions.RegionizedServer");
+    }
+
+    private static boolean hasClass(String name) {
+        try {
+            Class.forName(name);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String path, boolean def) {
+        return plugin.getConfig().getBoolean(path, def);
+    }
+
+    @Override
+    public int getInt(String path, int def) {
+        return plugin.getConfig().getInt(path, def);
+    }
+
+    @Override
+    public long getLong(String path, long def) {
+        return plugin.getConfig().getLong(path, def);
+    }
+
+    @Override
+    public double getDouble(String path, double def) {
+        return plugin.getConfig().getDouble(path, def);
+    }
+
+    @Override
+    public List<String> getStringList(String path) {
+        return plugin.getConfig().getStringList(path);
+    }
+}
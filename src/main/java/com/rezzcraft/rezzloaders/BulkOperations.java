@@ -0,0 +1,124 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Admin operations over many loaders at once (/loader bulk).
+ *
+ * The selection is fixed when the operation starts. It is then applied {@code bulk.batch-size}
+ * loaders per tick, each slice as one {@link LoaderCore} batch call: one registry write, one ticket
+ * pass, one persistence commit and one action-log batch. One operation runs at a time.
+ */
+public class BulkOperations {
+
+    public enum Action {
+        REMOVE, EXTEND, SUSPEND, RESUME;
+
+        public static Action fromString(String s) {
+            if (s == null) return null;
+            try {
+                return valueOf(s.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private final class Job {
+        final CommandSender sender;
+        final Action action;
+        final List<UUID> ids;
+        final long extendMs;
+        final String selector;
+        final long startNanos = System.nanoTime();
+        int pos;
+        int affected;
+        LoaderScheduler.Task task;
+
+        Job(CommandSender sender, Action action, List<UUID> ids, long extendMs, String selector) {
+            this.sender = sender;
+            this.action = action;
+            this.ids = ids;
+            this.extendMs = extendMs;
+            this.selector = selector;
+        }
+    }
+
+    private final RezzLoadersPlugin plugin;
+    private final LoaderManager manager;
+    private final ActionLogger actionLogger;
+    private volatile Job running;
+
+    public BulkOperations(RezzLoadersPlugin plugin, LoaderManager manager, ActionLogger actionLogger) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.actionLogger = actionLogger;
+    }
+
+    public boolean isRunning() {
+        return running != null;
+    }
+
+    /**
+     * Starts applying {@code action} to {@code selected}; false if another operation is still
+     * running. {@code extendMs} is only used by EXTEND.
+     */
+    public synchronized boolean start(CommandSender sender, Action action, List<LoaderRecord> selected, long extendMs, String selector) {
+        if (running != null) return false;
+        List<UUID> ids = new ArrayList<>(selected.size());
+        for (LoaderRecord r : selected) ids.add(r.id);
+        Job job = new Job(sender, action, ids, extendMs, selector);
+        running = job;
+        job.task = plugin.getPlatform().repeat(() -> step(job), 1L, 1L);
+        return true;
+    }
+
+    /** Stops the running operation after its current slice; loaders already processed stay changed. */
+    public synchronized void cancel() {
+        Job job = running;
+        if (job == null) return;
+        job.task.cancel();
+        running = null;
+    }
+
+    private void step(Job job) {
+        if (running != job) return;
+        int batch = Math.max(1, plugin.getConfig().getInt("bulk.batch-size", 500));
+        int end = Math.min(job.ids.size(), job.pos + batch);
+        List<UUID> slice = job.ids.subList(job.pos, end);
+        LoaderCore core = manager.getCore();
+        List<LoaderRecord> changed = switch (job.action) {
+            case REMOVE -> core.removeAll(slice, "bulk_removed_by_" + job.sender.getName());
+            case EXTEND -> core.extendAll(slice, job.extendMs);
+            case SUSPEND -> core.holdAll(slice, true);
+            case RESUME -> core.holdAll(slice, false);
+        };
+        job.pos = end;
+        job.affected += changed.size();
+        // Removals are logged per loader by the manager; the other actions are logged here.
+        if (job.action != Action.REMOVE && !changed.isEmpty()) {
+            List<String> lines = new ArrayList<>(changed.size());
+            for (LoaderRecord r : changed) {
+                lines.add("id=" + r.id + " owner=" + r.owner + " world=" + r.world + " xyz=" + r.x + "," + r.y + "," + r.z
+                        + (job.action == Action.EXTEND ? " expiresAt=" + r.expiresAtMs : "") + " by=" + job.sender.getName());
+            }
+            actionLogger.logAll("LOADER_" + job.action.name(), lines);
+        }
+        if (job.pos < job.ids.size()) return;
+
+        cancel();
+        double ms = (System.nanoTime() - job.startNanos) / 1_000_000.0;
+        actionLogger.log("BULK_" + job.action.name(), "by=" + job.sender.getName() + " selector=" + job.selector
+                + " selected=" + job.ids.size() + " affected=" + job.affected
+                + (job.action == Action.EXTEND ? " deltaSec=" + job.extendMs / 1000L : ""));
+        plugin.getPlatform().reply(job.sender, () -> job.sender.sendMessage(ChatColor.GREEN + "Bulk " + job.action.name().toLowerCase(Locale.ROOT)
+                + " done: " + job.affected + " of " + job.ids.size() + " loaders"
+                + String.format(Locale.ROOT, " in %.0f ms.", ms)));
+    }
+}
@@ -0,0 +1,218 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reference-counted plugin chunk tickets.
+ *
+ * Bukkit plugin tickets are a single flag per (plugin, chunk), so overlapping loaders would
+ * otherwise unload each other's shared chunks. Each loader acquires its footprint once; the
+ * Bukkit ticket API is only touched when a chunk's count moves between 0 and 1. Counts are guarded
+ * by this registry's monitor, which is never held across a world call; the {@link LoaderCore} calls
+ * it after releasing the registry lock, possibly from several threads at once.
+ *
+ * A 0/1 transition does not carry its ticket call with it. It schedules a {@link #sync} of the
+ * chunk on the thread that owns it ({@link LoaderWorld#runAt}), which compares the count at that
+ * moment with whether the ticket is actually applied. All syncs of a chunk therefore run on one
+ * thread and always act on the latest count, so a queued add can never land after a later remove.
+ */
+public final class ChunkTicketRegistry {
+
+    /** A chunk whose count just crossed between 0 and 1. */
+    private static final class Transition {
+        final String world;
+        final int chunkX;
+        final int chunkZ;
+
+        Transition(String world, int chunkX, int chunkZ) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+
+    private final LoaderWorld world;
+    private final Map<String, Map<Long, int[]>> counts = new HashMap<>();
+    private final Map<String, Set<Long>> applied = new HashMap<>(); // chunks whose Bukkit ticket is in place
+    private volatile int ticketedChunks;
+
+    private final MetricsRegistry.Counter adds;
+    private final MetricsRegistry.Counter removes;
+    private final MetricsRegistry.Histogram callTime;
+
+    public ChunkTicketRegistry(LoaderWorld world, MetricsRegistry metrics) {
+        this.world = world;
+        this.adds = metrics.counter("rezzloaders_ticket_calls_total", "op=\"add\"", "Bukkit plugin chunk ticket calls.");
+        this.removes = metrics.counter("rezzloaders_ticket_calls_total", "op=\"remove\"", "Bukkit plugin chunk ticket calls.");
+        this.callTime = metrics.latency("rezzloaders_ticket_call_seconds", "Latency of one Bukkit chunk ticket add or remove.");
+        metrics.gauge("rezzloaders_ticketed_chunks", "Chunks currently holding a plugin ticket.", () -> ticketedChunks);
+    }
+
+    /**
+     * Takes a reference on every chunk in the loader's footprint, provided {@code live} still holds
+     * for it. {@code live} is tested under this registry's monitor, so a concurrent
+     * {@link #release} for a loader that was removed or suspended meanwhile cannot be overtaken.
+     *
+     * @return true if the loader did not hold its tickets before this call
+     */
+    public boolean acquire(LoaderRecord rec, Predicate<LoaderRecord> live) {
+        List<Transition> changed = new ArrayList<>();
+        boolean acquired;
+        synchronized (this) {
+            acquired = take(rec, live, changed);
+        }
+        syncAll(changed);
+        return acquired;
+    }
+
+    /** Drops the loader's references, removing Bukkit tickets for chunks no other loader needs. */
+    public void release(LoaderRecord rec) {
+        List<Transition> changed = new ArrayList<>();
+        synchronized (this) {
+            drop(rec, changed);
+        }
+        syncAll(changed);
+    }
+
+    /** {@link #acquire} for many loaders under one hold of the monitor. */
+    public void acquireAll(Collection<LoaderRecord> recs, Predicate<LoaderRecord> live) {
+        List<Transition> changed = new ArrayList<>();
+        synchronized (this) {
+            for (LoaderRecord rec : recs) take(rec, live, changed);
+        }
+        syncAll(changed);
+    }
+
+    /**
+     * {@link #release} for many loaders under one hold of the monitor; a chunk shared by several of
+     * them costs a single ticket call.
+     */
+    public void releaseAll(Collection<LoaderRecord> recs) {
+        List<Transition> changed = new ArrayList<>();
+        synchronized (this) {
+            for (LoaderRecord rec : recs) drop(rec, changed);
+        }
+        syncAll(changed);
+    }
+
+    public synchronized int refCount(String world, int chunkX, int chunkZ) {
+        Map<Long, int[]> worldCounts = counts.get(world);
+        if (worldCounts == null) return 0;
+        int[] c = worldCounts.get(chunkKey(chunkX, chunkZ));
+        return c == null ? 0 : c[0];
+    }
+
+    /** Number of chunks currently holding a plugin ticket. */
+    public int ticketedChunks() {
+        return ticketedChunks;
+    }
+
+    /** Counts for {@link #acquire}; caller holds the monitor. Chunks going 0 to 1 are added to {@code changed}. */
+    private boolean take(LoaderRecord rec, Predicate<LoaderRecord> live, List<Transition> changed) {
+        if (rec.ticketsHeld) return false;
+        if (!live.test(rec)) return false;
+        if (rec.size == null) return false; // extra safety; should not happen after load migration
+        if (!world.isWorldLoaded(rec.world)) return false;
+
+        Map<Long, int[]> worldCounts = counts.computeIfAbsent(rec.world, k -> new HashMap<>());
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        for (int dx = -rec.size.radius; dx <= rec.size.radius; dx++) {
+            for (int dz = -rec.size.radius; dz <= rec.size.radius; dz++) {
+                int[] c = worldCounts.computeIfAbsent(chunkKey(cx + dx, cz + dz), k -> new int[1]);
+                if (c[0]++ == 0) changed.add(new Transition(rec.world, cx + dx, cz + dz));
+            }
+        }
+        rec.ticketsHeld = true;
+        return true;
+    }
+
+    /** Counts for {@link #release}; caller holds the monitor. Chunks going 1 to 0 are added to {@code changed}. */
+    private void drop(LoaderRecord rec, List<Transition> changed) {
+        if (!rec.ticketsHeld) return;
+        rec.ticketsHeld = false;
+
+        Map<Long, int[]> worldCounts = counts.get(rec.world);
+        if (worldCounts == null) return;
+        boolean loaded = world.isWorldLoaded(rec.world);
+
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        for (int dx = -rec.size.radius; dx <= rec.size.radius; dx++) {
+            for (int dz = -rec.size.radius; dz <= rec.size.radius; dz++) {
+                long key = chunkKey(cx + dx, cz + dz);
+                int[] c = worldCounts.get(key);
+                if (c == null) continue;
+                if (--c[0] <= 0) {
+                    worldCounts.remove(key);
+                    if (loaded) changed.add(new Transition(rec.world, cx + dx, cz + dz));
+                    else forgetApplied(rec.world, key); // the world took its tickets with it
+                }
+            }
+        }
+        if (worldCounts.isEmpty()) counts.remove(rec.world);
+    }
+
+    /** Schedules a {@link #sync} for each transition; called without the monitor held. */
+    private void syncAll(List<Transition> changed) {
+        for (Transition t : changed) {
+            world.runAt(t.world, t.chunkX, t.chunkZ, () -> sync(t.world, t.chunkX, t.chunkZ));
+        }
+    }
+
+    /**
+     * Brings the chunk's Bukkit ticket in line with its current count. Runs on the chunk's own
+     * thread only, so the world call can be made after the monitor is released without another
+     * sync of the same chunk overtaking it; a no-op if an earlier sync already got there.
+     */
+    private void sync(String worldName, int chunkX, int chunkZ) {
+        boolean add;
+        synchronized (this) {
+            long key = chunkKey(chunkX, chunkZ);
+            if (!world.isWorldLoaded(worldName)) {
+                forgetApplied(worldName, key);
+                return;
+            }
+            add = refCount(worldName, chunkX, chunkZ) > 0;
+            Set<Long> worldApplied = applied.get(worldName);
+            if (add == (worldApplied != null && worldApplied.contains(key))) return;
+            if (add) {
+                applied.computeIfAbsent(worldName, k -> new HashSet<>()).add(key);
+                ticketedChunks++;
+            } else {
+                worldApplied.remove(key);
+                if (worldApplied.isEmpty()) applied.remove(worldName);
+                ticketedChunks--;
+            }
+        }
+
+        long start = System.nanoTime();
+        if (add) {
+            world.addChunkTicket(worldName, chunkX, chunkZ);
+            adds.inc();
+        } else {
+            world.removeChunkTicket(worldName, chunkX, chunkZ);
+            removes.inc();
+        }
+        callTime.observeSince(start);
+    }
+
+    /** Caller holds the monitor. */
+    private void forgetApplied(String worldName, long key) {
+        Set<Long> worldApplied = applied.get(worldName);
+        if (worldApplied == null || !worldApplied.remove(key)) return;
+        ticketedChunks--;
+        if (worldApplied.isEmpty()) applied.remove(worldName);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Loaders ordered by expiry time. Polling only visits loaders that are due, so an idle check is a
+ * single head peek regardless of registry size. A record's expiresAtMs must not change while it
+ * is queued; remove it first and re-add it afterwards. Not thread-safe; callers hold the
+ * manager's monitor.
+ */
+public final class ExpiryQueue {
+
+    private static final Comparator<LoaderRecord> ORDER = Comparator
+            .<LoaderRecord>comparingLong(r -> r.expiresAtMs)
+            .thenComparing(r -> r.id);
+
+    private final TreeSet<LoaderRecord> queue = new TreeSet<>(ORDER);
+
+    public void add(LoaderRecord rec) {
+        queue.add(rec);
+    }
+
+    public void remove(LoaderRecord rec) {
+        queue.remove(rec);
+    }
+
+    /** Removes and returns every loader with expiresAtMs at or before {@code nowMs}. */
+    public List<LoaderRecord> pollDue(long nowMs) {
+        if (queue.isEmpty() || queue.first().expiresAtMs > nowMs) return Collections.emptyList();
+        List<LoaderRecord> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.first().expiresAtMs <= nowMs) {
+            due.add(queue.pollFirst());
+        }
+        return due;
+    }
+
+    /** Earliest expiry time, or {@link Long#MAX_VALUE} when empty. */
+    public long nextExpiryMs() {
+        return queue.isEmpty() ? Long.MAX_VALUE : queue.first().expiresAtMs;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public void clear() {
+        queue.clear();
+    }
+}
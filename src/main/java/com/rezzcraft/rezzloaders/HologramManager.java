@@ -0,0 +1,264 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loader holograms, tracked by entity UUID and culled to what players can see.
+ *
+ * Each TextDisplay is tagged with its loader id under {@link RezzLoadersPlugin#KEY_HOLOGRAM} and
+ * remembered in {@link LoaderRecord#hologramEntityId}, so an update is a single entity lookup.
+ * Holograms only exist while a player is within {@code holograms.view-distance} blocks. Visible
+ * loaders are spread over {@code holograms.update-seconds} worth of ticks by a per-loader phase,
+ * and text is only pushed when the rendered string changes. Holograms are non-persistent, so
+ * they are never saved with their chunk and none survive a restart or chunk unload.
+ *
+ * Bookkeeping runs on the main (or global region) thread; spawning, text updates and removal are
+ * dispatched to the thread that owns the loader's chunk through {@link BukkitPlatform#runAt}.
+ * Player positions are sampled on each player's own thread into {@link Viewer} snapshots, and the
+ * visibility pass reads only those, so on a region-threaded server it lags players by a tick.
+ */
+public class HologramManager {
+
+    /** Where a player was at their last sample. */
+    private static final class Viewer {
+        final String world;
+        final double x;
+        final double y;
+        final double z;
+
+        Viewer(Location loc) {
+            this.world = loc.getWorld().getName();
+            this.x = loc.getX();
+            this.y = loc.getY();
+            this.z = loc.getZ();
+        }
+    }
+
+    private final RezzLoadersPlugin plugin;
+    private final LoaderManager manager;
+    private final BukkitPlatform platform;
+
+    private final Set<LoaderRecord> visible = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Viewer> viewers = new ConcurrentHashMap<>();
+    private List<List<LoaderRecord>> phases = new ArrayList<>();
+    private long tick;
+
+    private final MetricsRegistry.Histogram tickTime;
+    private final MetricsRegistry.Counter textUpdates;
+    private final MetricsRegistry.Counter spawns;
+
+    public HologramManager(RezzLoadersPlugin plugin, LoaderManager manager) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.platform = plugin.getPlatform();
+        MetricsRegistry metrics = plugin.getMetrics();
+        this.tickTime = metrics.latency("rezzloaders_hologram_tick_seconds", "Hologram visibility and update work per tick.");
+        this.textUpdates = metrics.counter("rezzloaders_hologram_text_updates_total", "Hologram text changes sent to clients.");
+        this.spawns = metrics.counter("rezzloaders_hologram_spawns_total", "Hologram entities spawned.");
+        metrics.gauge("rezzloaders_holograms_visible", "Loaders currently showing a hologram.", visible::size);
+    }
+
+    /** Runs every tick: periodically recomputes visibility, then updates this tick's phase. */
+    public void tick() {
+        if (!plugin.getConfig().getBoolean("holograms.enabled", true)) {
+            if (!visible.isEmpty()) {
+                for (LoaderRecord r : visible) despawnEntity(r);
+                visible.clear();
+                phases = new ArrayList<>();
+            }
+            return;
+        }
+
+        long start = System.nanoTime();
+        int period = Math.max(1, plugin.getConfig().getInt("holograms.update-seconds", 10)) * 20;
+        int visibilityTicks = Math.max(1, plugin.getConfig().getInt("holograms.visibility-check-ticks", 20));
+        if (tick % visibilityTicks == 0 || phases.size() != period) {
+            sampleViewers();
+            recomputeVisibility(period);
+        }
+
+        List<LoaderRecord> due = phases.get((int) (tick % period));
+        for (LoaderRecord r : due) {
+            if (visible.contains(r)) spawnOrUpdate(r);
+        }
+        tick++;
+        tickTime.observeSince(start);
+    }
+
+    /** Shows a newly placed loader right away if someone is looking, instead of on the next pass. */
+    public void onAdded(LoaderRecord rec) {
+        if (!plugin.getConfig().getBoolean("holograms.enabled", true)) return;
+        platform.runGlobal(() -> {
+            if (!isViewed(rec)) return;
+            if (visible.add(rec) && !phases.isEmpty()) {
+                phases.get(phaseOf(rec, phases.size())).add(rec);
+            }
+            spawnOrUpdate(rec);
+        });
+    }
+
+    public void despawn(LoaderRecord rec) {
+        platform.runGlobal(() -> {
+            visible.remove(rec);
+            despawnEntity(rec);
+        });
+    }
+
+    public int visibleCount() {
+        return visible.size();
+    }
+
+    /**
+     * Refreshes each online player's {@link Viewer} on the player's own thread (inline off Folia) and
+     * forgets players who left.
+     */
+    private void sampleViewers() {
+        Set<UUID> online = new HashSet<>();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            UUID id = p.getUniqueId();
+            online.add(id);
+            platform.runFor(p, () -> {
+                if (p.isOnline()) viewers.put(id, new Viewer(p.getLocation()));
+            });
+        }
+        viewers.keySet().retainAll(online);
+    }
+
+    private void recomputeVisibility(int period) {
+        double viewDistance = Math.max(1.0, plugin.getConfig().getDouble("holograms.view-distance", 48.0));
+        double maxSq = viewDistance * viewDistance;
+        int chunkRadius = (int) Math.ceil(viewDistance / 16.0);
+
+        Set<LoaderRecord> now = new HashSet<>();
+        for (Viewer v : viewers.values()) {
+            int pcx = (int) Math.floor(v.x) >> 4;
+            int pcz = (int) Math.floor(v.z) >> 4;
+            for (int dx = -chunkRadius; dx <= chunkRadius; dx++) {
+                for (int dz = -chunkRadius; dz <= chunkRadius; dz++) {
+                    for (LoaderRecord r : manager.getCoveringChunk(v.world, pcx + dx, pcz + dz)) {
+                        // Parked loaders stay hidden until their owner is back.
+                        if (r.parkedAtMs == 0 && distanceSq(r, v) <= maxSq) now.add(r);
+                    }
+                }
+            }
+        }
+
+        for (LoaderRecord r : visible) {
+            if (!now.contains(r)) despawnEntity(r);
+        }
+        List<LoaderRecord> appeared = new ArrayList<>();
+        for (LoaderRecord r : now) {
+            if (!visible.contains(r)) appeared.add(r);
+        }
+        visible.clear();
+        visible.addAll(now);
+        // Newly visible loaders show up right away; their phase only governs later refreshes.
+        for (LoaderRecord r : appeared) spawnOrUpdate(r);
+
+        List<List<LoaderRecord>> next = new ArrayList<>(period);
+        for (int i = 0; i < period; i++) next.add(new ArrayList<>());
+        for (LoaderRecord r : visible) next.get(phaseOf(r, period)).add(r);
+        phases = next;
+    }
+
+    private boolean isViewed(LoaderRecord rec) {
+        double viewDistance = Math.max(1.0, plugin.getConfig().getDouble("holograms.view-distance", 48.0));
+        double maxSq = viewDistance * viewDistance;
+        for (Viewer v : viewers.values()) {
+            if (v.world.equals(rec.world) && distanceSq(rec, v) <= maxSq) return true;
+        }
+        return false;
+    }
+
+    private void spawnOrUpdate(LoaderRecord rec) {
+        if (rec.size == null) return; // extra safety; should not happen after load migration
+        platform.runAt(rec.world, rec.x >> 4, rec.z >> 4, () -> spawnOrUpdateOwned(rec));
+    }
+
+    /** Runs on the thread that owns the loader's chunk. */
+    private void spawnOrUpdateOwned(LoaderRecord rec) {
+        if (!visible.contains(rec)) return; // culled or removed while this was queued
+        TextDisplay display = resolve(rec);
+        if (display == null) {
+            World w = Bukkit.getWorld(rec.world);
+            if (w == null) return;
+            // Never load a chunk just to show a hologram; it is spawned on a later pass instead.
+            if (!w.isChunkLoaded(rec.x >> 4, rec.z >> 4)) return;
+
+            Location base = new Location(w, rec.x + 0.5, rec.y + plugin.getConfig().getDouble("holograms.y-offset", 1.8), rec.z + 0.5);
+            String loaderId = rec.id.toString();
+            display = w.spawn(base, TextDisplay.class, td -> {
+                td.setBillboard(Display.Billboard.CENTER);
+                td.setSeeThrough(true);
+                td.setShadowed(false);
+                td.setPersistent(false);
+                td.getPersistentDataContainer().set(plugin.KEY_HOLOGRAM, PersistentDataType.STRING, loaderId);
+            });
+            rec.hologramEntityId = display.getUniqueId();
+            rec.hologramText = null;
+            spawns.inc();
+        }
+
+        String text = render(rec);
+        if (!text.equals(rec.hologramText)) {
+            display.setText(text);
+            rec.hologramText = text;
+            textUpdates.inc();
+        }
+    }
+
+    private void despawnEntity(LoaderRecord rec) {
+        platform.runAt(rec.world, rec.x >> 4, rec.z >> 4, () -> {
+            TextDisplay td = resolve(rec);
+            if (td != null) td.remove();
+            rec.hologramEntityId = null;
+            rec.hologramText = null;
+        });
+    }
+
+    private TextDisplay resolve(LoaderRecord rec) {
+        UUID id = rec.hologramEntityId;
+        if (id == null) return null;
+        Entity e = Bukkit.getEntity(id);
+        if (e instanceof TextDisplay td && td.isValid()) return td;
+        rec.hologramEntityId = null;
+        rec.hologramText = null;
+        return null;
+    }
+
+    private String render(LoaderRecord rec) {
+        long now = System.currentTimeMillis();
+        long remainingMs = Math.max(0L, rec.expiresAtMs - now);
+        String remaining = TimeUtil.formatDurationCoarse(remainingMs);
+        int chunkCount = rec.size == LoaderSize.ONE_BY_ONE ? 1 : 25;
+        return "§6§lChunk Loader\n" +
+                "§e" + rec.size.size + "x" + rec.size.size + " §7(" + chunkCount + " chunks)\n" +
+                "§a" + remaining + "§7 remaining" + (rec.held ? "\n§cSuspended (admin)" : rec.suspended ? "\n§cSuspended (TPS)" : "");
+    }
+
+    private static int phaseOf(LoaderRecord rec, int period) {
+        return Math.floorMod(rec.id.hashCode(), period);
+    }
+
+    private static double distanceSq(LoaderRecord rec, Viewer v) {
+        double dx = rec.x + 0.5 - v.x;
+        double dy = rec.y + 0.5 - v.y;
+        double dz = rec.z + 0.5 - v.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
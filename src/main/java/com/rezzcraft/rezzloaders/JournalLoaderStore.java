@@ -0,0 +1,469 @@
+package com.rezzcraft.rezzloaders;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Binary loader storage: a compact snapshot plus an append-only journal of fixed-size records.
+ *
+ * Every mutation costs one {@value #RECORD_SIZE}-byte append. Loading reads the snapshot and
+ * replays the journal tail; a torn or corrupt tail record ends replay and is truncated away.
+ * Compaction rewrites the snapshot and starts a new, empty journal generation. A world name is
+ * defined once per generation; names longer than one record continue in the records after it.
+ */
+public class JournalLoaderStore implements LoaderStore {
+
+    static final int RECORD_SIZE = 80;
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - 4; // trailing CRC32
+    private static final int WORLD_CHUNK_BYTES = PAYLOAD_SIZE - 7; // name bytes per world record
+    private static final int MAX_WORLD_NAME_BYTES = Short.MAX_VALUE; // far beyond any file system's directory names
+
+    private static final int SNAPSHOT_MAGIC = 0x525A4C53; // "RZLS"
+    private static final int JOURNAL_MAGIC = 0x525A4C4A;  // "RZLJ"
+    private static final int VERSION = 1;
+    private static final int JOURNAL_HEADER_SIZE = 16;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_EXTEND = 3;
+    private static final byte OP_WORLD = 4;
+    private static final byte OP_WORLD_MORE = 5;
+
+    private final File snapshotFile;
+    private final File journalFile;
+    private final Logger logger;
+    private final long compactThreshold;
+    private final long compactIntervalMs;
+    private long lastCompactMs = System.currentTimeMillis();
+
+    private final Map<String, Integer> worldIds = new HashMap<>();
+    private int nextWorldId;
+    private long generation;
+    private long recordsSinceCompact;
+    private FileChannel channel;
+
+    public JournalLoaderStore(File dataFolder, Logger logger, long compactThreshold, long compactIntervalMs) {
+        this.snapshotFile = new File(dataFolder, "loaders.snapshot");
+        this.journalFile = new File(dataFolder, "loaders.journal");
+        this.logger = logger;
+        this.compactThreshold = compactThreshold;
+        this.compactIntervalMs = compactIntervalMs;
+    }
+
+    @Override
+    public String name() {
+        return "journal";
+    }
+
+    @Override
+    public boolean hasData() {
+        return snapshotFile.exists() || journalFile.exists();
+    }
+
+    /** Reads snapshot + journal and leaves the journal open for appends. */
+    @Override
+    public List<LoaderRecord> loadAll() throws IOException {
+        Map<UUID, LoaderRecord> state = new LinkedHashMap<>();
+        Map<Integer, String> worlds = new HashMap<>();
+        recordsSinceCompact = read(state, worlds, true);
+
+        worldIds.clear();
+        nextWorldId = 0;
+        for (Map.Entry<Integer, String> e : worlds.entrySet()) {
+            worldIds.put(e.getValue(), e.getKey());
+            nextWorldId = Math.max(nextWorldId, e.getKey() + 1);
+        }
+        if (channel != null) channel.close();
+        channel = null;
+        openJournal();
+        return new ArrayList<>(state.values());
+    }
+
+    @Override
+    public List<LoaderRecord> findByOwner(UUID owner) throws IOException {
+        List<LoaderRecord> out = new ArrayList<>();
+        for (LoaderRecord r : readOnly()) if (r.owner.equals(owner)) out.add(r);
+        return out;
+    }
+
+    @Override
+    public List<LoaderRecord> findByWorld(String world) throws IOException {
+        List<LoaderRecord> out = new ArrayList<>();
+        for (LoaderRecord r : readOnly()) if (r.world.equals(world)) out.add(r);
+        return out;
+    }
+
+    @Override
+    public long write(List<Mutation> batch, Supplier<Collection<LoaderRecord>> snapshot) throws IOException {
+        long bytes = append(batch);
+        long now = System.currentTimeMillis();
+        if (recordsSinceCompact >= compactThreshold || (recordsSinceCompact > 0 && now - lastCompactMs >= compactIntervalMs)) {
+            bytes += rewrite(List.copyOf(snapshot.get()));
+        }
+        return bytes;
+    }
+
+    @Override
+    public void importAll(Collection<LoaderRecord> records) throws IOException {
+        rewrite(records);
+    }
+
+    @Override
+    public void compact(Collection<LoaderRecord> records) throws IOException {
+        if (recordsSinceCompact > 0) rewrite(records);
+    }
+
+    private Collection<LoaderRecord> readOnly() throws IOException {
+        Map<UUID, LoaderRecord> state = new LinkedHashMap<>();
+        read(state, new HashMap<>(), false);
+        return state.values();
+    }
+
+    /**
+     * Replays snapshot + current-generation journal into {@code state}. With {@code repair}, a
+     * torn tail or stale-generation journal is truncated and {@link #generation} is updated.
+     *
+     * @return number of journal records replayed
+     */
+    private long read(Map<UUID, LoaderRecord> state, Map<Integer, String> worlds, boolean repair) throws IOException {
+        long gen = 0;
+        if (snapshotFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a loader snapshot: " + snapshotFile.getName());
+                int version = in.readInt();
+                if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+                gen = in.readLong();
+                int worldCount = in.readInt();
+                for (int i = 0; i < worldCount; i++) {
+                    int id = in.readInt();
+                    worlds.put(id, in.readUTF());
+                }
+                int count = in.readInt();
+                byte[] buf = new byte[RECORD_SIZE];
+                for (int i = 0; i < count; i++) {
+                    in.readFully(buf);
+                    ByteBuffer bb = ByteBuffer.wrap(buf);
+                    if (!checksumOk(bb)) throw new IOException("Corrupt snapshot record " + i);
+                    apply(bb, state, worlds, null);
+                }
+            }
+        }
+
+        if (repair) generation = gen;
+
+        long replayed = 0;
+        if (journalFile.exists()) {
+            try (FileChannel ch = repair
+                    ? FileChannel.open(journalFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+                boolean valid = readFully(ch, header)
+                        && header.getInt(0) == JOURNAL_MAGIC
+                        && header.getInt(4) == VERSION
+                        && header.getLong(8) == gen;
+                if (valid) {
+                    ByteBuffer rec = ByteBuffer.allocate(RECORD_SIZE);
+                    Map<Integer, byte[]> partialWorlds = new HashMap<>();
+                    long goodEnd = JOURNAL_HEADER_SIZE;
+                    while (true) {
+                        rec.clear();
+                        if (!readFully(ch, rec)) break;
+                        rec.flip();
+                        if (!checksumOk(rec)) break;
+                        apply(rec, state, worlds, partialWorlds);
+                        goodEnd += RECORD_SIZE;
+                        replayed++;
+                    }
+                    if (repair && ch.size() > goodEnd) {
+                        logger.warning("Truncating " + (ch.size() - goodEnd) + " bytes of torn/corrupt journal tail.");
+                        ch.truncate(goodEnd);
+                    }
+                } else if (repair) {
+                    // Journal from an older generation; its contents are already in the snapshot.
+                    ch.truncate(0);
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /** Appends one batch of mutations and forces it to disk; returns the bytes appended. */
+    private long append(List<Mutation> batch) throws IOException {
+        if (batch.isEmpty()) return 0L;
+        if (channel == null) openJournal();
+        int capacity = 0;
+        for (Mutation m : batch) capacity += RECORD_SIZE * (m.op == Mutation.Op.ADD ? 1 + worldRecords(m.record.world) : 1);
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+        // World ids defined by this batch only become visible once the batch is on disk.
+        Map<String, Integer> newWorlds = new HashMap<>();
+        int records = 0;
+        for (Mutation m : batch) {
+            LoaderRecord r = m.record;
+            switch (m.op) {
+                case ADD -> {
+                    Integer wid = worldIds.get(r.world);
+                    if (wid == null) wid = newWorlds.get(r.world);
+                    if (wid == null) {
+                        wid = nextWorldId + newWorlds.size();
+                        records += writeWorld(out, wid, r.world);
+                        newWorlds.put(r.world, wid);
+                    }
+                    writeAdd(out, r, wid);
+                }
+                case REMOVE -> writeIdOnly(out, OP_REMOVE, r.id, 0L);
+                case EXTEND -> writeIdOnly(out, OP_EXTEND, r.id, r.expiresAtMs);
+            }
+            records++;
+        }
+        out.flip();
+        int bytes = out.remaining();
+        long start = channel.position();
+        try {
+            while (out.hasRemaining()) channel.write(out);
+            channel.force(false);
+        } catch (IOException e) {
+            // Roll back a partial batch so a retry never leaves a torn record mid-file.
+            try {
+                channel.truncate(start);
+                channel.position(start);
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+        worldIds.putAll(newWorlds);
+        nextWorldId += newWorlds.size();
+        recordsSinceCompact += records;
+        return bytes;
+    }
+
+    /** Writes a fresh snapshot of {@code records} and starts a new, empty journal generation; returns the snapshot size. */
+    private long rewrite(Collection<LoaderRecord> records) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        for (LoaderRecord r : records) ids.putIfAbsent(r.world, ids.size());
+        for (Map.Entry<String, Integer> e : ids.entrySet()) {
+            if (e.getKey().getBytes(StandardCharsets.UTF_8).length > MAX_WORLD_NAME_BYTES) {
+                throw new IOException("World name too long for journal storage: " + e.getKey());
+            }
+        }
+        long nextGen = generation + 1;
+
+        File tmp = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nextGen);
+            out.writeInt(ids.size());
+            for (Map.Entry<String, Integer> e : ids.entrySet()) {
+                out.writeInt(e.getValue());
+                out.writeUTF(e.getKey());
+            }
+            out.writeInt(records.size());
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+            for (LoaderRecord r : records) {
+                buf.clear();
+                writeAdd(buf, r, ids.get(r.world));
+                out.write(buf.array(), 0, RECORD_SIZE);
+            }
+        }
+        try {
+            Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // The new snapshot is durable; an old-generation journal is ignored on load from here on.
+        generation = nextGen;
+        worldIds.clear();
+        worldIds.putAll(ids);
+        nextWorldId = ids.size();
+        if (channel != null) channel.close();
+        channel = null;
+        Files.deleteIfExists(journalFile.toPath());
+        openJournal();
+        recordsSinceCompact = 0;
+        lastCompactMs = System.currentTimeMillis();
+        return snapshotFile.length();
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) return;
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close loader journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private void openJournal() throws IOException {
+        File dir = journalFile.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        if (channel.size() < JOURNAL_HEADER_SIZE) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+            header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        channel.position(channel.size());
+    }
+
+    /**
+     * Applies one record. {@code partialWorlds} holds world names still waiting for their
+     * continuation records; null where none can occur (snapshots keep names in their header).
+     */
+    private static void apply(ByteBuffer bb, Map<UUID, LoaderRecord> state, Map<Integer, String> worlds,
+                              Map<Integer, byte[]> partialWorlds) throws IOException {
+        byte op = bb.get(0);
+        switch (op) {
+            case OP_WORLD -> {
+                int id = bb.getInt(1);
+                int len = bb.getShort(5);
+                if (len < 0) throw new IOException("Bad world name length " + len);
+                byte[] name = new byte[len];
+                bb.get(7, name, 0, Math.min(len, WORLD_CHUNK_BYTES));
+                if (len <= WORLD_CHUNK_BYTES) {
+                    worlds.put(id, new String(name, StandardCharsets.UTF_8));
+                } else if (partialWorlds != null) {
+                    partialWorlds.put(id, name);
+                } else {
+                    throw new IOException("Unexpected world continuation for id " + id);
+                }
+            }
+            case OP_WORLD_MORE -> {
+                int id = bb.getInt(1);
+                int offset = bb.getShort(5);
+                byte[] name = partialWorlds == null ? null : partialWorlds.get(id);
+                if (name == null || offset < WORLD_CHUNK_BYTES || offset >= name.length) {
+                    throw new IOException("Orphan world continuation for id " + id);
+                }
+                int n = Math.min(name.length - offset, WORLD_CHUNK_BYTES);
+                bb.get(7, name, offset, n);
+                if (offset + n == name.length) {
+                    partialWorlds.remove(id);
+                    worlds.put(id, new String(name, StandardCharsets.UTF_8));
+                }
+            }
+            case OP_ADD -> {
+                UUID id = new UUID(bb.getLong(1), bb.getLong(9));
+                UUID owner = new UUID(bb.getLong(17), bb.getLong(25));
+                String world = worlds.get(bb.getInt(33));
+                if (world == null) throw new IOException("Journal references unknown world id " + bb.getInt(33));
+                int x = bb.getInt(37);
+                int y = bb.getInt(41);
+                int z = bb.getInt(45);
+                LoaderSize size = bb.get(49) == 5 ? LoaderSize.FIVE_BY_FIVE : LoaderSize.ONE_BY_ONE;
+                long created = bb.getLong(50);
+                long expires = bb.getLong(58);
+                state.put(id, new LoaderRecord(id, owner, world, x, y, z, size, created, expires));
+            }
+            case OP_REMOVE -> state.remove(new UUID(bb.getLong(1), bb.getLong(9)));
+            case OP_EXTEND -> {
+                UUID id = new UUID(bb.getLong(1), bb.getLong(9));
+                LoaderRecord old = state.get(id);
+                if (old != null) {
+                    state.put(id, new LoaderRecord(old.id, old.owner, old.world, old.x, old.y, old.z, old.size,
+                            old.createdAtMs, bb.getLong(17)));
+                }
+            }
+            default -> throw new IOException("Unknown journal op " + op);
+        }
+    }
+
+    private static void writeAdd(ByteBuffer out, LoaderRecord r, int worldId) {
+        int start = out.position();
+        out.put(OP_ADD);
+        out.putLong(r.id.getMostSignificantBits()).putLong(r.id.getLeastSignificantBits());
+        out.putLong(r.owner.getMostSignificantBits()).putLong(r.owner.getLeastSignificantBits());
+        out.putInt(worldId);
+        out.putInt(r.x).putInt(r.y).putInt(r.z);
+        out.put((byte) (r.size == LoaderSize.FIVE_BY_FIVE ? 5 : 1));
+        out.putLong(r.createdAtMs);
+        out.putLong(r.expiresAtMs);
+        seal(out, start);
+    }
+
+    private static void writeIdOnly(ByteBuffer out, byte op, UUID id, long value) {
+        int start = out.position();
+        out.put(op);
+        out.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        out.putLong(value);
+        seal(out, start);
+    }
+
+    /** Number of records {@link #writeWorld} uses for {@code name}. */
+    private static int worldRecords(String name) {
+        int len = name.getBytes(StandardCharsets.UTF_8).length;
+        return Math.max(1, (len + WORLD_CHUNK_BYTES - 1) / WORLD_CHUNK_BYTES);
+    }
+
+    /**
+     * Defines a world id: one OP_WORLD record with the name's length and first bytes, then an
+     * OP_WORLD_MORE record per further {@value #WORLD_CHUNK_BYTES} bytes. Returns the records written.
+     */
+    private static int writeWorld(ByteBuffer out, int worldId, String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_WORLD_NAME_BYTES) throw new IOException("World name too long for journal storage: " + name);
+        int records = 0;
+        int offset = 0;
+        do {
+            int n = Math.min(bytes.length - offset, WORLD_CHUNK_BYTES);
+            int start = out.position();
+            out.put(offset == 0 ? OP_WORLD : OP_WORLD_MORE);
+            out.putInt(worldId);
+            out.putShort((short) (offset == 0 ? bytes.length : offset));
+            out.put(bytes, offset, n);
+            seal(out, start);
+            offset += n;
+            records++;
+        } while (offset < bytes.length);
+        return records;
+    }
+
+    /** Zero-pads the record to its payload size and appends the CRC32 of the payload. */
+    private static void seal(ByteBuffer out, int start) {
+        while (out.position() < start + PAYLOAD_SIZE) out.put((byte) 0);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), start, PAYLOAD_SIZE);
+        out.putInt((int) crc.getValue());
+    }
+
+    private static boolean checksumOk(ByteBuffer rec) {
+        CRC32 crc = new CRC32();
+        crc.update(rec.array(), 0, PAYLOAD_SIZE);
+        return (int) crc.getValue() == rec.getInt(PAYLOAD_SIZE);
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.rezzcraft.rezzloaders;
+
+/** Wall-clock time used for expiry and cooldowns; replaced by a virtual clock in simulations. */
+public interface LoaderClock {
+
+    LoaderClock SYSTEM = System::currentTimeMillis;
+
+    long millis();
+}
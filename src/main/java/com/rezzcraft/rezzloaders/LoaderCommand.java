@@ -2,6 +2,7 @@ package com.rezzcraft.rezzloaders;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -10,6 +11,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class LoaderCommand implements CommandExecutor, TabCompleter {
 
@@ -65,12 +67,15 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
 
                 ItemStack item = LoaderItems.createLoaderItem(plugin, durationSec, size);
                 item.setAmount(Math.min(64, amount));
-                Map<Integer, ItemStack> leftover = target.getInventory().addItem(item);
-                if (!leftover.isEmpty()) {
-                    sender.sendMessage(ChatColor.YELLOW + "Target inventory full; some items could not be added.");
-                }
-                sender.sendMessage(ChatColor.GREEN + "Gave " + target.getName() + " a " + LoaderItems.sizeLabel(size) + " loader for " + LoaderItems.formatDuration(durationSec) + ".");
-                target.sendMessage(ChatColor.GOLD + "You received a " + LoaderItems.sizeLabel(size) + " Chunk Loader (" + LoaderItems.formatDuration(durationSec) + "). Place it to activate!");
+                // The target's inventory belongs to whichever thread owns the target.
+                plugin.getPlatform().runFor(target, () -> {
+                    Map<Integer, ItemStack> leftover = target.getInventory().addItem(item);
+                    if (!leftover.isEmpty()) {
+                        sender.sendMessage(ChatColor.YELLOW + "Target inventory full; some items could not be added.");
+                    }
+                    sender.sendMessage(ChatColor.GREEN + "Gave " + target.getName() + " a " + LoaderItems.sizeLabel(size) + " loader for " + LoaderItems.formatDuration(durationSec) + ".");
+                    target.sendMessage(ChatColor.GOLD + "You received a " + LoaderItems.sizeLabel(size) + " Chunk Loader (" + LoaderItems.formatDuration(durationSec) + "). Place it to activate!");
+                });
                 return true;
             }
             case "list" -> {
@@ -89,6 +94,9 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage(ChatColor.YELLOW + "Usage: /loader list <player>");
                     return true;
                 }
+                if (manager.getReadiness() == LoaderCore.Readiness.LOADING) {
+                    sender.sendMessage(ChatColor.YELLOW + "Chunk loaders are still loading; the list may be incomplete.");
+                }
                 List<LoaderRecord> list = manager.getLoadersForOwner(who);
                 sender.sendMessage(ChatColor.AQUA + "Active loaders: " + list.size());
                 for (LoaderRecord r : list) {
@@ -97,6 +105,48 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
                 }
                 return true;
             }
+            case "find" -> {
+                if (!sender.hasPermission("rezzloaders.list") && !sender.hasPermission("rezzloaders.admin")) {
+                    sender.sendMessage(ChatColor.RED + "You don't have permission.");
+                    return true;
+                }
+                if (args.length < 3) {
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /loader find <owner|world> <name>");
+                    return true;
+                }
+                CompletableFuture<List<LoaderRecord>> future;
+                if (args[1].equalsIgnoreCase("owner")) {
+                    OfflinePlayer owner = Bukkit.getOfflinePlayerIfCached(args[2]);
+                    if (owner == null) {
+                        sender.sendMessage(ChatColor.RED + "Player not found: " + args[2]);
+                        return true;
+                    }
+                    future = manager.findStoredByOwner(owner.getUniqueId());
+                } else if (args[1].equalsIgnoreCase("world")) {
+                    future = manager.findStoredByWorld(args[2]);
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "Usage: /loader find <owner|world> <name>");
+                    return true;
+                }
+                // The store is queried on the storage thread; reply on the sender's thread.
+                future.whenComplete((list, err) -> plugin.getPlatform().reply(sender, () -> {
+                    if (err != null) {
+                        sender.sendMessage(ChatColor.RED + "Lookup failed: " + err.getMessage());
+                        return;
+                    }
+                    sender.sendMessage(ChatColor.AQUA + "Stored loaders: " + list.size());
+                    int shown = 0;
+                    for (LoaderRecord r : list) {
+                        if (shown++ >= 50) {
+                            sender.sendMessage(ChatColor.GRAY + "... and " + (list.size() - 50) + " more");
+                            break;
+                        }
+                        long remaining = Math.max(0L, (r.expiresAtMs - System.currentTimeMillis()) / 1000L);
+                        sender.sendMessage(ChatColor.GRAY + "- " + r.id + " " + r.world + " " + r.x + "," + r.y + "," + r.z + " " + LoaderItems.sizeLabel(r.size) + " remaining " + LoaderItems.formatDuration(remaining));
+                    }
+                }));
+                return true;
+            }
             case "remove" -> {
                 if (!sender.hasPermission("rezzloaders.remove") && !sender.hasPermission("rezzloaders.admin")) {
                     sender.sendMessage(ChatColor.RED + "You don't have permission.");
@@ -115,6 +165,109 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
                 }
                 return true;
             }
+            case "bulk" -> {
+                if (!sender.hasPermission("rezzloaders.admin")) {
+                    sender.sendMessage(ChatColor.RED + "You don't have permission.");
+                    return true;
+                }
+                return bulk(sender, args);
+            }
+            case "top" -> {
+                if (!sender.hasPermission("rezzloaders.admin")) {
+                    sender.sendMessage(ChatColor.RED + "You don't have permission.");
+                    return true;
+                }
+                int n = 10;
+                LoaderProfiler.Metric metric = LoaderProfiler.Metric.COST;
+                for (int i = 1; i < args.length; i++) {
+                    LoaderProfiler.Metric m = LoaderProfiler.Metric.fromString(args[i]);
+                    if (m != null) {
+                        metric = m;
+                        continue;
+                    }
+                    try {
+                        n = Math.max(1, Math.min(50, Integer.parseInt(args[i])));
+                    } catch (NumberFormatException e) {
+                        sender.sendMessage(ChatColor.YELLOW + "Usage: /loader top [n] [cost|entities|tiles|hoppers|redstone|items]");
+                        return true;
+                    }
+                }
+                if (!manager.isProfiling()) {
+                    sender.sendMessage(ChatColor.RED + "The profiler is disabled (profiler.enabled).");
+                    return true;
+                }
+                String unit = switch (metric) {
+                    case HOPPERS, REDSTONE, ITEMS -> "/min";
+                    default -> "";
+                };
+                List<LoaderProfiler.Entry> top = manager.topLoaders(metric, n);
+                sender.sendMessage(ChatColor.GOLD + "Top " + top.size() + " loaders by " + metric.name().toLowerCase(Locale.ROOT) + ":");
+                int rank = 1;
+                for (LoaderProfiler.Entry e : top) {
+                    LoaderRecord r = e.record;
+                    OfflinePlayer owner = Bukkit.getOfflinePlayer(r.owner);
+                    String ownerName = owner.getName() != null ? owner.getName() : r.owner.toString();
+                    sender.sendMessage(ChatColor.YELLOW + "" + (rank++) + ". " + ChatColor.WHITE + String.format(Locale.ROOT, "%.1f", e.value) + unit
+                            + ChatColor.GRAY + " " + ownerName + " " + r.world + " " + r.x + "," + r.y + "," + r.z + " "
+                            + LoaderItems.sizeLabel(r.size) + (r.suspended ? ChatColor.RED + " (suspended)" : "")
+                            + ChatColor.DARK_GRAY + " " + r.id);
+                }
+                return true;
+            }
+            case "metrics" -> {
+                if (!sender.hasPermission("rezzloaders.admin")) {
+                    sender.sendMessage(ChatColor.RED + "You don't have permission.");
+                    return true;
+                }
+                String filter = args.length >= 2 ? args[1].toLowerCase(Locale.ROOT) : null;
+                sender.sendMessage(ChatColor.GOLD + "RezzLoaders metrics" + (filter != null ? " matching '" + filter + "'" : "") + ":");
+                for (String line : manager.getMetrics().summaries()) {
+                    if (filter != null && !line.contains(filter)) continue;
+                    int space = line.lastIndexOf('}') >= 0 ? line.indexOf(' ', line.lastIndexOf('}')) : line.indexOf(' ');
+                    sender.sendMessage(ChatColor.YELLOW + line.substring(0, space) + ChatColor.WHITE + line.substring(space));
+                }
+                return true;
+            }
+            case "status" -> {
+                if (!sender.hasPermission("rezzloaders.admin")) {
+                    sender.sendMessage(ChatColor.RED + "You don't have permission.");
+                    return true;
+                }
+                RefreshScheduler refresh = manager.getRefresh();
+                sender.sendMessage(ChatColor.GOLD + "RezzLoaders status:");
+                LoaderCore core = manager.getCore();
+                switch (core.getReadiness()) {
+                    case LOADING -> sender.sendMessage(ChatColor.YELLOW + "Startup: " + ChatColor.RED + (manager.getLoadError() == null
+                            ? "reading storage" : "storage read failed (" + manager.getLoadError() + "); restart required"));
+                    case ACTIVATING -> sender.sendMessage(ChatColor.YELLOW + "Startup: " + ChatColor.WHITE + "activated "
+                            + core.getStartupActivated() + ", " + core.getStartup().pending() + " waiting"
+                            + (core.getStartup().isPaused() ? ChatColor.RED + " (paused, high MSPT)" : ""));
+                    case READY -> {
+                        // nothing to report
+                    }
+                }
+                sender.sendMessage(ChatColor.YELLOW + "Loaders: " + ChatColor.WHITE + manager.getAll().size()
+                        + (manager.isSuspended() ? ChatColor.RED + " (" + manager.getSuspendedCount() + " suspended)" : "")
+                        + (core.getParkedCount() > 0 ? ChatColor.GRAY + " (" + core.getParkedCount() + " parked)" : ""));
+                MsptGovernor governor = manager.getGovernor();
+                sender.sendMessage(ChatColor.YELLOW + "MSPT: " + ChatColor.WHITE + String.format(Locale.ROOT,
+                        "%.1f short, %.1f long, trend %+.2f/s, predicted %.1f",
+                        governor.shortMspt(), governor.longMspt(), governor.slope(), governor.predictedMspt()));
+                ActivationQueue activation = manager.getActivation();
+                if (activation.pending() > 0) {
+                    sender.sendMessage(ChatColor.YELLOW + "Resuming: " + ChatColor.WHITE + activation.pending() + " loaders waiting"
+                            + (activation.isPaused() ? ChatColor.RED + " (paused, high MSPT)" : ""));
+                }
+                sender.sendMessage(ChatColor.YELLOW + "Holograms in view: " + ChatColor.WHITE + manager.getHolograms().visibleCount());
+                sender.sendMessage(ChatColor.YELLOW + "Refresh backlog: " + ChatColor.WHITE + refresh.backlogChunks() + " chunks");
+                sender.sendMessage(ChatColor.YELLOW + "Refresh time: " + ChatColor.WHITE
+                        + String.format(Locale.ROOT, "last %.2fms, max %.2fms, total %.1fms", refresh.lastTickMs(), refresh.maxTickMs(), refresh.totalMs()));
+                sender.sendMessage(ChatColor.YELLOW + "Refreshed: " + ChatColor.WHITE + refresh.chunksRefreshed() + " chunks, "
+                        + refresh.blocksRefreshed() + " blocks, " + refresh.chunksSkipped() + " chunks skipped");
+                sender.sendMessage(ChatColor.YELLOW + "Scan cache: " + ChatColor.WHITE + refresh.getScans().size() + " chunks, "
+                        + refresh.getScans().scansStarted() + " scans");
+                return true;
+            }
             case "reload" -> {
                 if (!sender.hasPermission("rezzloaders.admin")) {
                     sender.sendMessage(ChatColor.RED + "You don't have permission.");
@@ -136,11 +289,121 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.GOLD + "RezzLoaders commands:");
         sender.sendMessage(ChatColor.YELLOW + "/loader give <player> <duration> <1x1|5x5> [amount]" + ChatColor.GRAY + " - Give a timed loader item");
         sender.sendMessage(ChatColor.YELLOW + "/loader list [player]" + ChatColor.GRAY + " - List active loaders");
+        sender.sendMessage(ChatColor.YELLOW + "/loader find <owner|world> <name>" + ChatColor.GRAY + " - Search stored loaders");
         sender.sendMessage(ChatColor.YELLOW + "/loader remove <id>" + ChatColor.GRAY + " - Remove a loader by id");
+        sender.sendMessage(ChatColor.YELLOW + "/loader bulk <remove|extend <duration>|suspend|resume> <owner|world|near|expiring> <value>" + ChatColor.GRAY + " - Act on many loaders (admin)");
+        sender.sendMessage(ChatColor.YELLOW + "/loader top [n] [metric]" + ChatColor.GRAY + " - Most expensive loaders (admin)");
+        sender.sendMessage(ChatColor.YELLOW + "/loader metrics [filter]" + ChatColor.GRAY + " - Show plugin metrics (admin)");
+        sender.sendMessage(ChatColor.YELLOW + "/loader status" + ChatColor.GRAY + " - Show runtime statistics (admin)");
         sender.sendMessage(ChatColor.YELLOW + "/loader reload" + ChatColor.GRAY + " - Reload config (admin)");
         sender.sendMessage(ChatColor.GRAY + "Place the item to activate. Right-click to view info.");
     }
 
+    /**
+     * /loader bulk: an action (extend takes a duration), a selector with its value, and "confirm"
+     * when more than bulk.confirm-above loaders match. Selectors: owner (player name), world (name),
+     * near (chunk radius around the sender), expiring (within a duration).
+     */
+    private boolean bulk(CommandSender sender, String[] args) {
+        String usage = ChatColor.YELLOW + "Usage: /loader bulk <remove|extend <duration>|suspend|resume> <owner|world|near|expiring> <value> [confirm]";
+        BulkOperations.Action action = args.length >= 2 ? BulkOperations.Action.fromString(args[1]) : null;
+        if (action == null) {
+            sender.sendMessage(usage);
+            return true;
+        }
+        int i = 2;
+        long extendSec = 0L;
+        if (action == BulkOperations.Action.EXTEND) {
+            extendSec = args.length > i ? parseDurationSeconds(args[i]) : -1;
+            if (extendSec <= 0) {
+                sender.sendMessage(ChatColor.RED + "Invalid duration. Examples: 1h, 24h, 7d, 30m");
+                return true;
+            }
+            i++;
+        }
+        if (args.length < i + 2) {
+            sender.sendMessage(usage);
+            return true;
+        }
+        if (manager.getReadiness() == LoaderCore.Readiness.LOADING) {
+            sender.sendMessage(ChatColor.YELLOW + "Chunk loaders are still loading; try again in a moment.");
+            return true;
+        }
+        String kind = args[i].toLowerCase(Locale.ROOT);
+        String value = args[i + 1];
+        boolean confirmed = args.length > i + 2 && args[i + 2].equalsIgnoreCase("confirm");
+
+        List<LoaderRecord> selected = new ArrayList<>();
+        switch (kind) {
+            case "owner" -> {
+                OfflinePlayer owner = Bukkit.getOfflinePlayerIfCached(value);
+                if (owner == null) {
+                    sender.sendMessage(ChatColor.RED + "Player not found: " + value);
+                    return true;
+                }
+                selected.addAll(manager.getLoadersForOwner(owner.getUniqueId()));
+            }
+            case "world" -> {
+                for (LoaderRecord r : manager.getAll()) {
+                    if (r.world.equalsIgnoreCase(value)) selected.add(r);
+                }
+            }
+            case "near" -> {
+                if (!(sender instanceof Player p)) {
+                    sender.sendMessage(ChatColor.RED + "Only players can select loaders near themselves.");
+                    return true;
+                }
+                int radius;
+                try {
+                    radius = Math.max(0, Integer.parseInt(value));
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(ChatColor.RED + "Invalid chunk radius: " + value);
+                    return true;
+                }
+                String world = p.getWorld().getName();
+                int pcx = p.getLocation().getBlockX() >> 4;
+                int pcz = p.getLocation().getBlockZ() >> 4;
+                for (LoaderRecord r : manager.getAll()) {
+                    if (r.world.equals(world) && Math.abs((r.x >> 4) - pcx) <= radius && Math.abs((r.z >> 4) - pcz) <= radius) {
+                        selected.add(r);
+                    }
+                }
+            }
+            case "expiring" -> {
+                long withinSec = parseDurationSeconds(value);
+                if (withinSec <= 0) {
+                    sender.sendMessage(ChatColor.RED + "Invalid duration. Examples: 1h, 24h, 7d, 30m");
+                    return true;
+                }
+                long cutoff = System.currentTimeMillis() + withinSec * 1000L;
+                for (LoaderRecord r : manager.getAll()) {
+                    if (r.expiresAtMs <= cutoff) selected.add(r);
+                }
+            }
+            default -> {
+                sender.sendMessage(usage);
+                return true;
+            }
+        }
+
+        if (selected.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No loaders match.");
+            return true;
+        }
+        int confirmAbove = plugin.getConfig().getInt("bulk.confirm-above", 10);
+        if (selected.size() > confirmAbove && !confirmed) {
+            sender.sendMessage(ChatColor.YELLOW + "This affects " + selected.size() + " loaders. Add 'confirm' to the end of the command to proceed.");
+            return true;
+        }
+        String selector = kind + ":" + value;
+        if (!manager.getBulk().start(sender, action, selected, extendSec * 1000L, selector)) {
+            sender.sendMessage(ChatColor.RED + "Another bulk operation is still running.");
+            return true;
+        }
+        sender.sendMessage(ChatColor.GRAY + "Bulk " + action.name().toLowerCase(Locale.ROOT) + " of " + selected.size() + " loaders started.");
+        return true;
+    }
+
     static long parseDurationSeconds(String input) {
         if (input == null) return -1;
         String s = input.trim().toLowerCase(Locale.ROOT);
@@ -161,7 +424,20 @@ public class LoaderCommand implements CommandExecutor, TabCompleter {
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
-            return partial(args[0], Arrays.asList("help", "give", "list", "remove", "reload"));
+            return partial(args[0], Arrays.asList("help", "give", "list", "find", "remove", "bulk", "top", "metrics", "status", "reload"));
+        }
+        if (args[0].equalsIgnoreCase("bulk")) {
+            if (args.length == 2) return partial(args[1], Arrays.asList("remove", "extend", "suspend", "resume"));
+            int sel = args[1].equalsIgnoreCase("extend") ? 3 : 2;
+            if (args.length == sel + 1) return partial(args[sel], Arrays.asList("owner", "world", "near", "expiring"));
+            if (args.length == sel + 3) return partial(args[sel + 2], List.of("confirm"));
+            return Collections.emptyList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("find")) {
+            return partial(args[1], Arrays.asList("owner", "world"));
+        }
+        if (args[0].equalsIgnoreCase("top") && args.length <= 3) {
+            return partial(args[args.length - 1], Arrays.asList("cost", "entities", "tiles", "hoppers", "redstone", "items"));
         }
         if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
             return null; // let Paper suggest online players
@@ -0,0 +1,764 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+/**
+ * Server-independent loader logic: the registry and its indexes, expiry, chunk-ticket accounting,
+ * MSPT-driven load shedding with the activation ramp, and parking of loaders whose owner is away.
+ *
+ * Everything server-specific goes through {@link LoaderWorld}, {@link LoaderScheduler},
+ * {@link LoaderSettings} and {@link LoaderClock}, so the same code runs in the plugin
+ * ({@link BukkitPlatform}) and in simulations. Side effects the core does not own (holograms,
+ * persistence, the action log) are reported to a {@link Listener}.
+ *
+ * Reads are lock-free: lookups go to concurrent indexes and {@link #getAll()} returns a cached
+ * immutable snapshot. Writers are serialized on the core's monitor, which only covers registry
+ * bookkeeping; ticket calls and listener callbacks run after it is released. Mutations may come
+ * from any thread (on Folia, whichever region a player acted in), so a ticket acquire re-checks
+ * that its loader is still registered and active before applying anything.
+ */
+public class LoaderCore {
+
+    /**
+     * Startup progress: {@code LOADING} while storage is read, {@code ACTIVATING} while stored
+     * loaders are handed their tickets by the startup ramp, then {@code READY}.
+     */
+    public enum Readiness { LOADING, ACTIVATING, READY }
+
+    /** Callbacks for side effects outside the core; invoked without the core's monitor held. */
+    public interface Listener {
+        void added(LoaderRecord rec);
+
+        void removed(LoaderRecord rec, String reason);
+
+        /** Several loaders removed by one batch call; reported one by one unless overridden. */
+        default void removedAll(List<LoaderRecord> recs, String reason) {
+            for (LoaderRecord rec : recs) removed(rec, reason);
+        }
+
+        /** Loaders whose {@code expiresAtMs} was moved by one batch call. */
+        default void extended(List<LoaderRecord> recs) {
+        }
+
+        /** Loaders parked because their owner is away; their tickets are already released. */
+        default void parked(List<LoaderRecord> recs) {
+        }
+
+        /** Audit event such as {@code TPS_SUSPEND}. */
+        void event(String type, String details);
+    }
+
+    /** The registry as of one write {@code version}. */
+    private static final class Snapshot {
+        final long version;
+        final List<LoaderRecord> loaders;
+
+        Snapshot(long version, List<LoaderRecord> loaders) {
+            this.version = version;
+            this.loaders = loaders;
+        }
+    }
+
+    private final LoaderWorld world;
+    private final LoaderSettings settings;
+    private final LoaderClock clock;
+    private final Logger logger;
+    private final Listener listener;
+    private final Function<List<LoaderRecord>, Map<LoaderRecord, Double>> costs;
+
+    private final Map<UUID, LoaderRecord> loaders = new ConcurrentHashMap<>();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(0L, List.of()));
+    private volatile long version;
+    private final LoaderIndex index = new LoaderIndex();
+    private final OwnerIndex owners = new OwnerIndex();
+    private final ExpiryQueue expiry = new ExpiryQueue();
+    private final ChunkTicketRegistry tickets;
+    private final ActivationQueue activation;
+    private final ActivationQueue startup;
+    private final MsptGovernor governor;
+
+    private final MetricsRegistry.Histogram expiryBatch;
+    private final MetricsRegistry.Counter governorSheds;
+    private final MetricsRegistry.Counter governorShedAlls;
+    private final MetricsRegistry.Counter governorRestores;
+
+    private final List<LoaderScheduler.Task> tasks = new ArrayList<>();
+    private volatile int suspendedCount = 0;
+    private volatile int parkedCount = 0;
+
+    private volatile Readiness readiness = Readiness.READY;
+    private int startupTotal;
+    private volatile int startupActivated;
+    private long startupBeganMs;
+    private long lastProgressMs;
+
+    /**
+     * @param costs shedding cost of each given loader (higher is shed first; missing means 0), once
+     *              per shed or restore pass; called with the monitor held
+     */
+    public LoaderCore(LoaderWorld world, LoaderSettings settings, LoaderClock clock, Logger logger,
+                      MetricsRegistry metrics, Listener listener, Function<List<LoaderRecord>, Map<LoaderRecord, Double>> costs) {
+        this.world = world;
+        this.settings = settings;
+        this.clock = clock;
+        this.logger = logger;
+        this.listener = listener;
+        this.costs = costs;
+        this.tickets = new ChunkTicketRegistry(world, metrics);
+        this.governor = new MsptGovernor(settings, world, clock);
+        this.activation = new ActivationQueue(settings, "tps.resume", "Loader ramp", 4, 5L, world, clock, logger, governor::shortMspt);
+        this.startup = new ActivationQueue(settings, "startup", "Startup activation", 100, 1L, world, clock, logger, governor::shortMspt);
+
+        this.expiryBatch = metrics.histogram("rezzloaders_expiry_batch_size", "Loaders expired per expiry check.", 0, 1, 2, 5, 10, 50, 100, 1000);
+        this.governorSheds = metrics.counter("rezzloaders_governor_actions_total", "action=\"shed\"", "Load governor state transitions.");
+        this.governorShedAlls = metrics.counter("rezzloaders_governor_actions_total", "action=\"shed_all\"", "Load governor state transitions.");
+        this.governorRestores = metrics.counter("rezzloaders_governor_actions_total", "action=\"restore\"", "Load governor state transitions.");
+        metrics.gauge("rezzloaders_loaders", "Registered loaders.", () -> loaders.size());
+        metrics.gauge("rezzloaders_loaders_suspended", "Loaders currently shed by the governor.", () -> suspendedCount);
+        metrics.gauge("rezzloaders_loaders_parked", "Loaders parked while their owner is offline.", () -> parkedCount);
+        metrics.gauge("rezzloaders_activation_pending", "Loaders waiting in the activation ramp.", activation::pending);
+        metrics.gauge("rezzloaders_startup_pending", "Stored loaders not yet activated since startup.", startup::pending);
+        metrics.gauge("rezzloaders_ready", "1 once every stored loader has been activated after startup.", () -> readiness == Readiness.READY ? 1 : 0);
+        metrics.gauge("rezzloaders_mspt_short", "Governor short-window MSPT.", governor::shortMspt);
+        metrics.gauge("rezzloaders_mspt_long", "Governor long-window MSPT.", governor::longMspt);
+        metrics.gauge("rezzloaders_mspt_predicted", "Governor predicted MSPT.", governor::predictedMspt);
+    }
+
+    // ---- queries ----
+
+    /**
+     * Immutable snapshot of every registered loader. Rebuilt at most once per write, and only when
+     * asked for, so repeated reads between writes cost nothing.
+     */
+    public List<LoaderRecord> getAll() {
+        long v = version;
+        Snapshot s = snapshot.get();
+        if (s.version == v) return s.loaders;
+        // Every write up to v completed before v was published, so this copy contains it.
+        Snapshot fresh = new Snapshot(v, List.copyOf(loaders.values()));
+        return snapshot.accumulateAndGet(fresh, (cur, next) -> cur.version >= next.version ? cur : next).loaders;
+    }
+
+    public int size() {
+        return loaders.size();
+    }
+
+    public Optional<LoaderRecord> getById(UUID id) {
+        return Optional.ofNullable(loaders.get(id));
+    }
+
+    public LoaderRecord getAt(String world, int x, int y, int z) {
+        return index.getAt(world, x, y, z);
+    }
+
+    public List<LoaderRecord> getCovering(String world, int chunkX, int chunkZ) {
+        return index.getCovering(world, chunkX, chunkZ);
+    }
+
+    public boolean isCovered(String world, int chunkX, int chunkZ) {
+        return index.isCovered(world, chunkX, chunkZ);
+    }
+
+    public int countForOwner(UUID owner) {
+        return owners.count(owner);
+    }
+
+    public int countForOwner(UUID owner, LoaderSize size) {
+        return owners.count(owner, size);
+    }
+
+    public List<LoaderRecord> listForOwner(UUID owner) {
+        return owners.list(owner);
+    }
+
+    /** Loaders holding a ticket on the chunk. */
+    public int ticketRefCount(String world, int chunkX, int chunkZ) {
+        return tickets.refCount(world, chunkX, chunkZ);
+    }
+
+    public int ticketedChunks() {
+        return tickets.ticketedChunks();
+    }
+
+    /** The spatial index; safe to read from any thread. */
+    LoaderIndex index() {
+        return index;
+    }
+
+    public MsptGovernor getGovernor() {
+        return governor;
+    }
+
+    public ActivationQueue getActivation() {
+        return activation;
+    }
+
+    /** The startup ramp; empty once {@link #isReady()}. */
+    public ActivationQueue getStartup() {
+        return startup;
+    }
+
+    public Readiness getReadiness() {
+        return readiness;
+    }
+
+    /** True once stored loaders are loaded and activated; the governor only acts when ready. */
+    public boolean isReady() {
+        return readiness == Readiness.READY;
+    }
+
+    /** Stored loaders activated by the startup ramp so far. */
+    public int getStartupActivated() {
+        return startupActivated;
+    }
+
+    /** True while any loader is shed for TPS. */
+    public boolean isSuspended() {
+        return suspendedCount > 0;
+    }
+
+    public int getSuspendedCount() {
+        return suspendedCount;
+    }
+
+    public int getParkedCount() {
+        return parkedCount;
+    }
+
+    // ---- mutations ----
+
+    public LoaderRecord add(UUID owner, String world, int x, int y, int z, LoaderSize size, long durationSeconds) {
+        return add(owner, world, x, y, z, size, durationSeconds, null);
+    }
+
+    /**
+     * Registers a new loader. {@code admit}, if given, is evaluated under the writer lock right
+     * before registering (e.g. a per-owner limit check); when it returns false nothing is added and
+     * this returns null.
+     */
+    public LoaderRecord add(UUID owner, String world, int x, int y, int z, LoaderSize size, long durationSeconds,
+                            Predicate<LoaderCore> admit) {
+        LoaderRecord rec;
+        synchronized (this) {
+            if (admit != null && !admit.test(this)) return null;
+            long now = clock.millis();
+            rec = new LoaderRecord(UUID.randomUUID(), owner, world, x, y, z, size, now, now + durationSeconds * 1000L);
+            loaders.put(rec.id, rec);
+            index.add(rec);
+            owners.add(rec);
+            expiry.add(rec);
+            // While shedding is in progress the new loader queues behind the ones already suspended.
+            if (suspendedCount > 0) markSuspended(rec);
+            version++;
+        }
+        acquire(rec);
+        listener.added(rec);
+        return rec;
+    }
+
+    /** Unregisters a loader and releases its tickets; false if it was not registered. */
+    public boolean remove(UUID id, String reason) {
+        LoaderRecord rec;
+        synchronized (this) {
+            rec = loaders.remove(id);
+            if (rec == null) return false;
+            index.remove(rec);
+            owners.remove(rec);
+            expiry.remove(rec);
+            activation.remove(rec);
+            startup.remove(rec);
+            if (rec.suspended) suspendedCount--;
+            if (rec.parkedAtMs != 0) parkedCount--;
+            version++;
+        }
+        tickets.release(rec);
+        listener.removed(rec, reason);
+        return true;
+    }
+
+    /**
+     * Unregisters every listed loader that is registered, in one registry write and one ticket
+     * pass. Returns the loaders removed.
+     */
+    public List<LoaderRecord> removeAll(Collection<UUID> ids, String reason) {
+        List<LoaderRecord> removed = new ArrayList<>(ids.size());
+        synchronized (this) {
+            for (UUID id : ids) {
+                LoaderRecord rec = loaders.remove(id);
+                if (rec == null) continue;
+                index.remove(rec);
+                owners.remove(rec);
+                expiry.remove(rec);
+                activation.remove(rec);
+                startup.remove(rec);
+                if (rec.suspended) suspendedCount--;
+                if (rec.parkedAtMs != 0) parkedCount--;
+                removed.add(rec);
+            }
+            if (removed.isEmpty()) return removed;
+            version++;
+        }
+        tickets.releaseAll(removed);
+        listener.removedAll(removed, reason);
+        return removed;
+    }
+
+    /**
+     * Moves the expiry of every listed loader by {@code deltaMs} (never before now). Tickets are
+     * unaffected. Returns the loaders changed.
+     */
+    public List<LoaderRecord> extendAll(Collection<UUID> ids, long deltaMs) {
+        List<LoaderRecord> changed = new ArrayList<>(ids.size());
+        synchronized (this) {
+            long now = clock.millis();
+            for (UUID id : ids) {
+                LoaderRecord rec = loaders.get(id);
+                if (rec == null) continue;
+                expiry.remove(rec);
+                rec.expiresAtMs = Math.max(now, rec.expiresAtMs + deltaMs);
+                if (onExpiryClock(rec)) expiry.add(rec);
+                changed.add(rec);
+            }
+        }
+        if (!changed.isEmpty()) listener.extended(changed);
+        return changed;
+    }
+
+    /**
+     * Admin suspension: {@code hold} releases the listed loaders' tickets until they are released
+     * again with {@code hold == false}. Independent of governor shedding, which never lifts a hold.
+     * Released loaders go through the activation ramp like unparked ones, or stay suspended while
+     * shedding is in progress. Returns the loaders whose state changed.
+     */
+    public List<LoaderRecord> holdAll(Collection<UUID> ids, boolean hold) {
+        List<LoaderRecord> changed = new ArrayList<>(ids.size());
+        synchronized (this) {
+            List<LoaderRecord> ramp = new ArrayList<>();
+            for (UUID id : ids) {
+                LoaderRecord rec = loaders.get(id);
+                if (rec == null || rec.held == hold) continue;
+                rec.held = hold;
+                changed.add(rec);
+                if (hold) {
+                    startup.remove(rec);
+                    activation.remove(rec);
+                } else if (suspendedCount > 0) {
+                    markSuspended(rec);
+                } else if (!rec.suspended && rec.parkedAtMs == 0) {
+                    ramp.add(rec);
+                }
+            }
+            activation.submit(ramp);
+        }
+        if (hold) tickets.releaseAll(changed);
+        return changed;
+    }
+
+    /** Registers loaders read from storage and applies their tickets; a record with a known id replaces the old one. */
+    public void load(Collection<LoaderRecord> records) {
+        List<LoaderRecord> replaced = new ArrayList<>();
+        List<LoaderRecord> added;
+        synchronized (this) {
+            added = register(records, replaced);
+            readiness = Readiness.READY;
+        }
+        for (LoaderRecord rec : replaced) tickets.release(rec);
+        for (LoaderRecord rec : added) acquire(rec);
+    }
+
+    /** Marks the core as waiting for storage; call before reading it off-thread. */
+    public void beginLoading() {
+        readiness = Readiness.LOADING;
+    }
+
+    /**
+     * Registers loaders read from storage without applying their tickets; the startup ramp
+     * ({@code startup.*} settings) activates them in batches from {@link #tickActivation()}.
+     * Loaders of owners who are away past the parking grace period are parked here instead, so they
+     * never enter the ramp. Safe to call from any thread.
+     */
+    public void loadStaged(Collection<LoaderRecord> records) {
+        // Presence is looked up before taking the monitor; off the tick threads lastSeen may read player data.
+        Map<UUID, Boolean> away = settings.getBoolean("parking.enabled", false) ? awayOwners(records) : Map.of();
+        List<LoaderRecord> replaced = new ArrayList<>();
+        List<LoaderRecord> parked = new ArrayList<>();
+        synchronized (this) {
+            List<LoaderRecord> added = register(records, replaced);
+            List<LoaderRecord> activate = new ArrayList<>(added.size());
+            long now = clock.millis();
+            for (LoaderRecord r : added) {
+                if (away.getOrDefault(r.owner, false)) {
+                    markParked(r, now);
+                    parked.add(r);
+                } else {
+                    activate.add(r);
+                }
+            }
+            startup.submit(activate);
+            startupTotal = startup.pending();
+            startupActivated = 0;
+            startupBeganMs = lastProgressMs = now;
+            readiness = startup.pending() > 0 ? Readiness.ACTIVATING : Readiness.READY;
+        }
+        for (LoaderRecord rec : replaced) tickets.release(rec);
+        if (parked.isEmpty()) return;
+        logger.info("[RezzLoaders] Startup: parked " + parked.size() + " loaders whose owners are offline.");
+        listener.event("LOADER_PARK", "parked=" + parked.size() + " totalParked=" + parkedCount + " startup=true");
+        unparkReturned(parked);
+    }
+
+    /** Adds stored records to the registry; caller holds the monitor. Returns the records added. */
+    private List<LoaderRecord> register(Collection<LoaderRecord> records, List<LoaderRecord> replaced) {
+        List<LoaderRecord> added = new ArrayList<>(records.size());
+        for (LoaderRecord rec : records) {
+            try {
+                LoaderRecord previous = loaders.put(rec.id, rec);
+                if (previous != null) {
+                    index.remove(previous);
+                    owners.remove(previous);
+                    expiry.remove(previous);
+                    activation.remove(previous);
+                    startup.remove(previous);
+                    if (previous.suspended) suspendedCount--;
+                    if (previous.parkedAtMs != 0) parkedCount--;
+                    replaced.add(previous);
+                }
+                index.add(rec);
+                owners.add(rec);
+                expiry.add(rec);
+                added.add(rec);
+            } catch (Exception e) {
+                logger.warning("Failed to load loader entry: " + rec.id + " - " + e.getMessage());
+            }
+        }
+        version++;
+        return added;
+    }
+
+    /** Releases every ticket and stops the activation ramp; loaders stay registered. */
+    public void releaseAll() {
+        synchronized (this) {
+            activation.clear();
+            startup.clear();
+        }
+        for (LoaderRecord r : getAll()) tickets.release(r);
+    }
+
+    // ---- periodic work ----
+
+    /** Registers the expiry check, activation ramp and governor with {@code scheduler}. */
+    public void start(LoaderScheduler scheduler) {
+        if (!tasks.isEmpty()) return;
+        // Offline-owner parking; stored loaders are already sorted at load, this catches owners who leave later.
+        long parkingTicks = Math.max(1L, settings.getLong("parking.check-interval-seconds", 60L)) * 20L;
+        tasks.add(scheduler.repeat(this::checkParking, 1L, parkingTicks));
+        // expiry check; only loaders that are actually due are visited
+        long expiryTicks = Math.max(1L, settings.getLong("expiry.check-interval-ticks", 40L));
+        tasks.add(scheduler.repeat(this::checkExpiry, expiryTicks, expiryTicks));
+        // Ramped ticket application at startup and after a TPS resume.
+        tasks.add(scheduler.repeat(this::tickActivation, 1L, 1L));
+        long sampleTicks = governor.getSampleTicks();
+        tasks.add(scheduler.repeat(this::governLoad, sampleTicks, sampleTicks));
+    }
+
+    public void stop() {
+        for (LoaderScheduler.Task t : tasks) t.cancel();
+        tasks.clear();
+    }
+
+    /** Expires every loader that is due. */
+    public void checkExpiry() {
+        List<LoaderRecord> toExpire;
+        synchronized (this) {
+            toExpire = expiry.pollDue(clock.millis());
+        }
+        expiryBatch.observe(toExpire.size());
+        for (LoaderRecord r : toExpire) {
+            remove(r.id, "expired");
+        }
+    }
+
+    /** Hands the next due batches of the startup and resume ramps their tickets. */
+    public void tickActivation() {
+        List<LoaderRecord> batch;
+        List<LoaderRecord> started = List.of();
+        boolean becameReady = false;
+        String progress = null;
+        synchronized (this) {
+            batch = activation.tick();
+            for (LoaderRecord rec : batch) {
+                if (rec.suspended) {
+                    rec.suspended = false;
+                    suspendedCount--;
+                }
+            }
+            if (readiness == Readiness.ACTIVATING) {
+                started = startup.tick();
+                startupActivated += started.size();
+                long now = clock.millis();
+                if (startup.pending() == 0) {
+                    readiness = Readiness.READY;
+                    becameReady = true;
+                    progress = startupActivated + "/" + startupTotal + " in " + TimeUtil.formatDuration(now - startupBeganMs);
+                } else if (now - lastProgressMs >= Math.max(1L, settings.getLong("startup.progress-interval-seconds", 10L)) * 1000L) {
+                    lastProgressMs = now;
+                    progress = startupActivated + "/" + startupTotal + (startup.isPaused() ? " (paused, high MSPT)" : "");
+                }
+            }
+        }
+        for (LoaderRecord rec : batch) acquire(rec);
+        // Loaders shed before their turn keep their suspended flag and are skipped here.
+        for (LoaderRecord rec : started) acquire(rec);
+
+        if (becameReady) {
+            logger.info("[RezzLoaders] Startup complete: activated " + progress + ".");
+            listener.event("STARTUP_READY", "activated=" + progress);
+        } else if (progress != null) {
+            logger.info("[RezzLoaders] Startup: activated " + progress + " stored loaders.");
+        }
+    }
+
+    /**
+     * Graduated load shedding driven by {@link MsptGovernor}. On SHED another
+     * {@code tps.shed.step-percent} of loaders is suspended, costliest first (everything on
+     * SHED_ALL); on RESTORE one step is handed back to the activation ramp, cheapest first.
+     */
+    public void governLoad() {
+        MsptGovernor.Action action = governor.sample();
+        // Samples are still taken while starting so the windows are warm; the startup ramp has its own MSPT hold.
+        if (action == MsptGovernor.Action.NONE || readiness != Readiness.READY) return;
+        double stepPercent = settings.getDouble("tps.shed.step-percent", 25.0);
+        String mspt = String.format(Locale.ROOT, "%.1f/%.1f (predicted %.1f)", governor.shortMspt(), governor.longMspt(), governor.predictedMspt());
+
+        if (action == MsptGovernor.Action.SHED || action == MsptGovernor.Action.SHED_ALL) {
+            List<LoaderRecord> shed;
+            int suspended;
+            int total;
+            synchronized (this) {
+                // Anything still waiting to come back stays suspended, and is restored with the rest later.
+                for (LoaderRecord r : activation.drain()) markSuspended(r);
+                List<LoaderRecord> active = new ArrayList<>();
+                for (LoaderRecord r : loaders.values()) {
+                    // Held and parked loaders have no tickets to shed.
+                    if (!r.suspended && !r.held && r.parkedAtMs == 0) active.add(r);
+                }
+                if (active.isEmpty()) return;
+                active.sort(ShedPolicy.costliestFirst(presenceOf(active)::get, costsOf(active)));
+                int n = action == MsptGovernor.Action.SHED_ALL ? active.size() : Math.min(active.size(), ShedPolicy.stepSize(loaders.size(), stepPercent));
+                shed = new ArrayList<>(active.subList(0, n));
+                for (LoaderRecord r : shed) markSuspended(r);
+                suspended = suspendedCount;
+                total = loaders.size();
+            }
+            for (LoaderRecord r : shed) tickets.release(r);
+            governor.acted(action);
+            (action == MsptGovernor.Action.SHED_ALL ? governorShedAlls : governorSheds).inc();
+            logger.warning("[RezzLoaders] MSPT high (" + mspt + "). Suspended "
+                    + shed.size() + " loaders (" + suspended + "/" + total + " suspended).");
+            listener.event("TPS_SUSPEND", "mspt=" + mspt + " shed=" + shed.size() + " suspended=" + suspended + " total=" + total);
+        } else {
+            int resuming;
+            int suspended;
+            synchronized (this) {
+                if (suspendedCount == 0 || activation.pending() > 0) return;
+                List<LoaderRecord> shed = new ArrayList<>();
+                for (LoaderRecord r : loaders.values()) {
+                    // A parked loader keeps its suspended flag until it is unparked and restored.
+                    if (r.suspended && r.parkedAtMs == 0) shed.add(r);
+                }
+                if (shed.isEmpty()) return;
+                shed.sort(ShedPolicy.costliestFirst(presenceOf(shed)::get, costsOf(shed)).reversed());
+                List<LoaderRecord> restore = shed.subList(0, Math.min(shed.size(), ShedPolicy.stepSize(loaders.size(), stepPercent)));
+                activation.submit(restore);
+                resuming = restore.size();
+                suspended = shed.size();
+            }
+            governor.acted(action);
+            governorRestores.inc();
+            logger.info("[RezzLoaders] MSPT recovered (" + mspt + "). Resuming "
+                    + resuming + " of " + suspended + " suspended loaders.");
+            listener.event("TPS_RESUME", "mspt=" + mspt + " resuming=" + resuming + " suspended=" + suspended);
+        }
+    }
+
+    /**
+     * Parks the loaders of owners who have been offline for {@code parking.grace-minutes}: their
+     * tickets are released until the owner joins ({@link #unparkOwner}). With
+     * {@code parking.counts-against-expiry: false} a parked loader does not expire and gets the parked
+     * time back when it is unparked. When parking is switched off, every parked loader is handed back
+     * to the activation ramp.
+     */
+    public void checkParking() {
+        if (!settings.getBoolean("parking.enabled", false)) {
+            if (parkedCount > 0) unpark(getAll());
+            return;
+        }
+        // Presence is looked up outside the monitor, once per owner.
+        List<LoaderRecord> unparked = new ArrayList<>();
+        for (LoaderRecord r : loaders.values()) {
+            if (r.parkedAtMs == 0) unparked.add(r);
+        }
+        Map<UUID, Boolean> away = awayOwners(unparked);
+        List<LoaderRecord> candidates = new ArrayList<>();
+        for (LoaderRecord r : unparked) {
+            if (away.get(r.owner)) candidates.add(r);
+        }
+        if (candidates.isEmpty()) return;
+
+        List<LoaderRecord> parked = new ArrayList<>(candidates.size());
+        synchronized (this) {
+            long now = clock.millis();
+            for (LoaderRecord r : candidates) {
+                if (r.parkedAtMs != 0 || loaders.get(r.id) != r) continue;
+                markParked(r, now);
+                parked.add(r);
+            }
+        }
+        if (parked.isEmpty()) return;
+        tickets.releaseAll(parked);
+        listener.parked(parked);
+        listener.event("LOADER_PARK", "parked=" + parked.size() + " totalParked=" + parkedCount);
+        unparkReturned(parked);
+    }
+
+    /** Whether each owner has been offline for longer than {@code parking.grace-minutes}. */
+    private Map<UUID, Boolean> awayOwners(Collection<LoaderRecord> records) {
+        long graceMs = Math.max(0L, settings.getLong("parking.grace-minutes", 60L)) * 60_000L;
+        long now = clock.millis();
+        Map<UUID, Boolean> away = new HashMap<>();
+        for (LoaderRecord r : records) {
+            away.computeIfAbsent(r.owner, o -> !world.isOnline(o) && now - world.lastSeen(o) >= graceMs);
+        }
+        return away;
+    }
+
+    /** Parks a loader; caller holds the monitor and releases its tickets afterwards. */
+    private void markParked(LoaderRecord rec, long now) {
+        rec.parkedAtMs = now;
+        parkedCount++;
+        startup.remove(rec);
+        activation.remove(rec);
+        if (!onExpiryClock(rec)) expiry.remove(rec);
+    }
+
+    /** An owner who joined while their loaders were being parked missed the unpark; catch up now. */
+    private void unparkReturned(List<LoaderRecord> parked) {
+        Map<UUID, Boolean> checked = new HashMap<>();
+        for (LoaderRecord r : parked) {
+            if (checked.putIfAbsent(r.owner, Boolean.TRUE) == null && world.isOnline(r.owner)) unparkOwner(r.owner);
+        }
+    }
+
+    /** The owner joined: hands their parked loaders to the activation ramp. Returns how many. */
+    public int unparkOwner(UUID owner) {
+        return unpark(owners.list(owner));
+    }
+
+    /**
+     * Unparks loaders. Those not shed go to the activation ramp; shed ones, and every one while
+     * shedding is in progress, stay suspended and come back with the governor's restore steps.
+     */
+    private int unpark(Collection<LoaderRecord> candidates) {
+        List<LoaderRecord> resumed = new ArrayList<>();
+        List<LoaderRecord> credited = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            boolean counts = settings.getBoolean("parking.counts-against-expiry", true);
+            for (LoaderRecord r : candidates) {
+                if (r.parkedAtMs == 0 || loaders.get(r.id) != r) continue;
+                expiry.remove(r);
+                if (!counts) {
+                    r.expiresAtMs += now - r.parkedAtMs;
+                    credited.add(r);
+                }
+                r.parkedAtMs = 0;
+                parkedCount--;
+                expiry.add(r);
+                // Same rule as add(): while shedding, returning loaders queue behind the suspended ones.
+                if (suspendedCount > 0) markSuspended(r);
+                resumed.add(r);
+            }
+            List<LoaderRecord> ramp = new ArrayList<>(resumed.size());
+            for (LoaderRecord r : resumed) {
+                if (!r.suspended) ramp.add(r);
+            }
+            activation.submit(ramp);
+        }
+        if (resumed.isEmpty()) return 0;
+        if (!credited.isEmpty()) listener.extended(credited);
+        listener.event("LOADER_UNPARK", "resumed=" + resumed.size() + " credited=" + credited.size() + " totalParked=" + parkedCount);
+        return resumed.size();
+    }
+
+    /**
+     * Before shutdown: credits parked loaders that are off the expiry clock with the time parked so
+     * far, so the persisted expiry includes it. They stay parked.
+     */
+    public void settleParked() {
+        if (settings.getBoolean("parking.counts-against-expiry", true)) return;
+        List<LoaderRecord> credited = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            for (LoaderRecord r : loaders.values()) {
+                if (r.parkedAtMs == 0) continue;
+                expiry.remove(r);
+                r.expiresAtMs += now - r.parkedAtMs;
+                r.parkedAtMs = now;
+                if (onExpiryClock(r)) expiry.add(r);
+                credited.add(r);
+            }
+        }
+        if (!credited.isEmpty()) listener.extended(credited);
+    }
+
+    /** Shedding cost per loader, computed once so sorting does not re-evaluate it per comparison. */
+    private ToDoubleFunction<LoaderRecord> costsOf(List<LoaderRecord> records) {
+        Map<LoaderRecord, Double> byLoader = costs.apply(records);
+        return r -> byLoader.getOrDefault(r, 0.0);
+    }
+
+    /** Owner presence, looked up once per owner for the same reason as {@link #costsOf}. */
+    private Map<UUID, Boolean> presenceOf(List<LoaderRecord> records) {
+        Map<UUID, Boolean> online = new HashMap<>();
+        for (LoaderRecord r : records) online.computeIfAbsent(r.owner, world::isOnline);
+        return online;
+    }
+
+    /**
+     * Applies a loader's tickets unless it was removed, shed, held or parked since the caller released the
+     * monitor; the check and the count changes are atomic with respect to {@link ChunkTicketRegistry#release}.
+     */
+    private void acquire(LoaderRecord rec) {
+        tickets.acquire(rec, this::isLive);
+    }
+
+    /** Registered, not shed, held or parked: the loader should hold its tickets. */
+    private boolean isLive(LoaderRecord rec) {
+        return !rec.suspended && !rec.held && rec.parkedAtMs == 0 && loaders.get(rec.id) == rec;
+    }
+
+    /** Whether the loader belongs in the expiry queue; parked loaders can be taken off the clock. */
+    private boolean onExpiryClock(LoaderRecord rec) {
+        return rec.parkedAtMs == 0 || settings.getBoolean("parking.counts-against-expiry", true);
+    }
+
+    /** Marks a loader suspended; caller holds the monitor and releases its tickets afterwards. */
+    private void markSuspended(LoaderRecord rec) {
+        if (rec.suspended) return;
+        rec.suspended = true;
+        suspendedCount++;
+    }
+}
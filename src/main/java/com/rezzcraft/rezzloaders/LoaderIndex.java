@@ -0,0 +1,184 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Spatial index over registered loaders.
+ *
+ * World names are interned to small integer ids. Exact block lookups go through a per-world table
+ * keyed by packed block coordinates, and a second table keyed by packed (world, chunkX, chunkZ)
+ * holds every loader whose footprint covers that chunk, plus that chunk's profiler counters.
+ * Lookups are lock-free from any thread; writers are serialized by the {@link LoaderCore} monitor.
+ */
+public final class LoaderIndex {
+
+    private final Map<String, Integer> worldIds = new ConcurrentHashMap<>();
+    private final List<String> worldNames = new CopyOnWriteArrayList<>();
+    private final List<Map<Long, LoaderRecord>> blocksByWorld = new CopyOnWriteArrayList<>();
+    private final Map<Long, ChunkEntry> chunks = new ConcurrentHashMap<>();
+
+    /** Loaders whose footprint covers one chunk, and what {@link LoaderProfiler} saw there. */
+    public static final class ChunkEntry {
+        public final int worldId;
+        public final int chunkX;
+        public final int chunkZ;
+        private volatile LoaderRecord[] loaders = new LoaderRecord[0]; // copy-on-write
+
+        // Gauges from the last sample of the loaded chunk.
+        int entities;
+        int tileEntities;
+        // Events in the current profiler window, and per-minute rates from the last finished one.
+        int hopperMoves;
+        int redstoneUpdates;
+        int itemSpawns;
+        double hopperRate;
+        double redstoneRate;
+        double itemSpawnRate;
+
+        ChunkEntry(int worldId, int chunkX, int chunkZ) {
+            this.worldId = worldId;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        int loaderCount() {
+            return loaders.length;
+        }
+
+        public List<LoaderRecord> loaders() {
+            return Collections.unmodifiableList(Arrays.asList(loaders));
+        }
+
+        private void add(LoaderRecord rec) {
+            LoaderRecord[] next = Arrays.copyOf(loaders, loaders.length + 1);
+            next[next.length - 1] = rec;
+            loaders = next;
+        }
+
+        private boolean remove(LoaderRecord rec) {
+            LoaderRecord[] cur = loaders;
+            for (int i = 0; i < cur.length; i++) {
+                if (cur[i] == rec) {
+                    LoaderRecord[] next = new LoaderRecord[cur.length - 1];
+                    System.arraycopy(cur, 0, next, 0, i);
+                    System.arraycopy(cur, i + 1, next, i, cur.length - i - 1);
+                    loaders = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isEmpty() {
+            return loaders.length == 0;
+        }
+    }
+
+    /** Returns the id for a world name, allocating one on first use. Ids are never reused. */
+    public int worldId(String world) {
+        Integer id = worldIds.get(world);
+        if (id != null) return id;
+        int next = blocksByWorld.size();
+        // Fill the per-id lists before publishing the id, so readers that see it find them.
+        worldNames.add(world);
+        blocksByWorld.add(new ConcurrentHashMap<>());
+        worldIds.put(world, next);
+        return next;
+    }
+
+    public void add(LoaderRecord rec) {
+        int wid = worldId(rec.world);
+        blocksByWorld.get(wid).put(packBlock(rec.x, rec.y, rec.z), rec);
+
+        int radius = radiusOf(rec);
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                int chunkX = cx + dx;
+                int chunkZ = cz + dz;
+                chunks.computeIfAbsent(chunkKey(wid, chunkX, chunkZ), k -> new ChunkEntry(wid, chunkX, chunkZ)).add(rec);
+            }
+        }
+    }
+
+    public void remove(LoaderRecord rec) {
+        Integer wid = worldIds.get(rec.world);
+        if (wid == null) return;
+        Map<Long, LoaderRecord> blocks = blocksByWorld.get(wid);
+        long bkey = packBlock(rec.x, rec.y, rec.z);
+        if (blocks.get(bkey) == rec) blocks.remove(bkey);
+
+        int radius = radiusOf(rec);
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                long key = chunkKey(wid, cx + dx, cz + dz);
+                ChunkEntry entry = chunks.get(key);
+                if (entry != null && entry.remove(rec) && entry.isEmpty()) {
+                    chunks.remove(key);
+                }
+            }
+        }
+    }
+
+    public LoaderRecord getAt(String world, int x, int y, int z) {
+        Integer wid = worldIds.get(world);
+        if (wid == null) return null;
+        return blocksByWorld.get(wid).get(packBlock(x, y, z));
+    }
+
+    /** Loaders whose footprint covers the given chunk, or an empty list. */
+    public List<LoaderRecord> getCovering(String world, int chunkX, int chunkZ) {
+        Integer wid = worldIds.get(world);
+        if (wid == null) return Collections.emptyList();
+        ChunkEntry entry = chunks.get(chunkKey(wid, chunkX, chunkZ));
+        return entry == null ? Collections.emptyList() : entry.loaders();
+    }
+
+    /** The entry for a loader-covered chunk, or null. */
+    public ChunkEntry entry(String world, int chunkX, int chunkZ) {
+        Integer wid = worldIds.get(world);
+        return wid == null ? null : chunks.get(chunkKey(wid, chunkX, chunkZ));
+    }
+
+    /** Weakly consistent live view of every covered chunk. */
+    public Collection<ChunkEntry> entries() {
+        return chunks.values();
+    }
+
+    public String worldName(int worldId) {
+        return worldNames.get(worldId);
+    }
+
+    public boolean isCovered(String world, int chunkX, int chunkZ) {
+        Integer wid = worldIds.get(world);
+        return wid != null && chunks.containsKey(chunkKey(wid, chunkX, chunkZ));
+    }
+
+    public void clear() {
+        for (Map<Long, LoaderRecord> m : blocksByWorld) m.clear();
+        chunks.clear();
+    }
+
+    static int radiusOf(LoaderRecord rec) {
+        return rec.size == null ? 0 : rec.size.radius;
+    }
+
+    /** 26 bits x, 26 bits z, 12 bits y: covers the full world border and build height. */
+    static long packBlock(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+
+    /** 20 bits world id, 22 bits chunk x, 22 bits chunk z. */
+    static long chunkKey(int worldId, int chunkX, int chunkZ) {
+        return ((long) (worldId & 0xFFFFF) << 44) | ((long) (chunkX & 0x3FFFFF) << 22) | (chunkZ & 0x3FFFFFL);
+    }
+}
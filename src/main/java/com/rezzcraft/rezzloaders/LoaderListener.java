@@ -10,7 +10,13 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockRedstoneEvent;
+import org.bukkit.event.entity.ItemSpawnEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataContainer;
@@ -78,7 +84,14 @@ public class LoaderListener implements Listener {
 
         Location loc = block.getLocation();
         LoaderRecord rec = manager.getByLocation(loc);
-        if (rec == null) return;
+        if (rec == null) {
+            // Until storage has been read, a lodestone may still turn out to be a loader.
+            if (manager.getReadiness() == LoaderCore.Readiness.LOADING) {
+                event.getPlayer().sendMessage(ChatColor.YELLOW + "Chunk loaders are still loading; try again in a moment.");
+                event.setCancelled(true);
+            }
+            return;
+        }
 
         Player player = event.getPlayer();
         boolean isOwner = rec.owner.equals(player.getUniqueId());
@@ -107,6 +120,58 @@ public class LoaderListener implements Listener {
         log.log("REMOVE", player.getName() + " removed loader " + rec.id + " at " + LoaderManager.locShort(loc));
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlaced(BlockPlaceEvent event) {
+        manager.onBlockChanged(event.getBlockPlaced(), event.getBlockPlaced().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBroken(BlockBreakEvent event) {
+        manager.onBlockChanged(event.getBlock(), event.getBlock().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onHopperMove(InventoryMoveItemEvent event) {
+        if (!manager.isProfiling()) return;
+        Location loc = event.getSource().getLocation();
+        if (loc == null || loc.getWorld() == null) return;
+        manager.profileEvent(LoaderProfiler.Metric.HOPPERS, loc.getWorld().getName(), loc.getBlockX(), loc.getBlockZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRedstone(BlockRedstoneEvent event) {
+        if (!manager.isProfiling()) return;
+        Block b = event.getBlock();
+        manager.profileEvent(LoaderProfiler.Metric.REDSTONE, b.getWorld().getName(), b.getX(), b.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemSpawn(ItemSpawnEvent event) {
+        if (!manager.isProfiling()) return;
+        Location loc = event.getLocation();
+        manager.profileEvent(LoaderProfiler.Metric.ITEMS, loc.getWorld().getName(), loc.getBlockX(), loc.getBlockZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        int resumed = manager.onPlayerJoin(player.getUniqueId());
+        if (resumed > 0) {
+            player.sendMessage(ChatColor.GREEN + "Welcome back! " + resumed + " of your chunk loaders are starting up again.");
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        manager.onPlayerQuit(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (event.isNewChunk()) return; // freshly generated; nothing can be stuck yet
+        manager.onChunkLoaded(event.getWorld().getName(), event.getChunk().getX(), event.getChunk().getZ());
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onInteract(PlayerInteractEvent event) {
         if (event.getClickedBlock() == null) return;
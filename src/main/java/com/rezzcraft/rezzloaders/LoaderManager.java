@@ -1,76 +1,136 @@
 package com.rezzcraft.rezzloaders;
 
-import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
 import org.bukkit.Location;
-import org.bukkit.World;
-import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
-import org.bukkit.block.data.BlockData;
-import org.bukkit.block.BlockState;
-import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.TextDisplay;
-import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+/**
+ * Bukkit side of the plugin around {@link LoaderCore}: holograms, chunk refresh, profiling,
+ * persistence and metrics export. Registry state lives in the core; reads through this class are
+ * lock-free.
+ */
 public class LoaderManager {
 
     private final RezzLoadersPlugin plugin;
     private final ActionLogger actionLogger;
 
-    private final Map<UUID, LoaderRecord> loaders = new HashMap<>();
+    private final BukkitPlatform platform;
+    private final LoaderCore core;
+    private final HologramManager holograms;
+    private final RefreshScheduler refresh;
+    private final LoaderProfiler profiler;
+    private final MetricsRegistry metrics;
+    private final MetricsExporter metricsExporter;
+    private final BulkOperations bulk;
 
-    private File dataFile;
-    private YamlConfiguration data;
+    private final File dataFile;
+    private final LoaderPersistence persistence;
 
-    private BukkitTask tickTask;
-    private BukkitTask hologramTask;
-    private BukkitTask tpsTask;
-
-    private volatile boolean suspended = false;
+    private LoaderScheduler.Task hologramTask;
+    private LoaderScheduler.Task refreshTask;
+    private LoaderScheduler.Task profilerTask;
+    private LoaderScheduler.Task metricsTask;
+    private volatile String loadError; // set if storage could not be read at startup
 
     public LoaderManager(RezzLoadersPlugin plugin, ActionLogger actionLogger) {
         this.plugin = plugin;
         this.actionLogger = actionLogger;
+        this.metrics = plugin.getMetrics();
+        this.platform = plugin.getPlatform();
+        this.core = new LoaderCore(platform, platform, LoaderClock.SYSTEM, plugin.getLogger(), metrics, new CoreListener(), this::shedCosts);
+        this.holograms = new HologramManager(plugin, this);
+        this.refresh = new RefreshScheduler(plugin);
+        this.profiler = new LoaderProfiler(plugin, core.index());
 
         this.dataFile = new File(plugin.getDataFolder(), "loaders.yml");
-        this.data = YamlConfiguration.loadConfiguration(dataFile);
+        this.persistence = new LoaderPersistence(plugin, dataFile, core::getAll, metrics);
+        this.metricsExporter = new MetricsExporter(plugin, platform, metrics);
+        this.bulk = new BulkOperations(plugin, this, actionLogger);
     }
 
-    public synchronized Collection<LoaderRecord> getAll() {
-        return new ArrayList<>(loaders.values());
-    }
+    /** Applies the core's changes to holograms, refresh state, storage and the action log. */
+    private final class CoreListener implements LoaderCore.Listener {
+        @Override
+        public void added(LoaderRecord rec) {
+            holograms.onAdded(rec);
+            persistence.added(rec);
+        }
 
-    public synchronized Optional<LoaderRecord> getById(UUID id) {
-        return Optional.ofNullable(loaders.get(id));
-    }
+        @Override
+        public void removed(LoaderRecord rec, String reason) {
+            forgetScans(rec);
+            holograms.despawn(rec);
+            persistence.removed(rec);
+            actionLogger.log("LOADER_REMOVE", "id=" + rec.id + " owner=" + rec.owner + " world=" + rec.world + " xyz=" + rec.x + "," + rec.y + "," + rec.z + " size=" + rec.size + " reason=" + reason);
+        }
 
-    public synchronized Optional<LoaderRecord> getByBlock(Location loc) {
-        for (LoaderRecord r : loaders.values()) {
-            if (r.world.equals(loc.getWorld().getName()) && r.x == loc.getBlockX() && r.y == loc.getBlockY() && r.z == loc.getBlockZ()) {
-                return Optional.of(r);
+        @Override
+        public void removedAll(List<LoaderRecord> recs, String reason) {
+            List<String> lines = new ArrayList<>(recs.size());
+            for (LoaderRecord rec : recs) {
+                forgetScans(rec);
+                holograms.despawn(rec);
+                lines.add("id=" + rec.id + " owner=" + rec.owner + " world=" + rec.world + " xyz=" + rec.x + "," + rec.y + "," + rec.z + " size=" + rec.size + " reason=" + reason);
             }
+            persistence.removedAll(recs);
+            actionLogger.logAll("LOADER_REMOVE", lines);
+        }
+
+        @Override
+        public void extended(List<LoaderRecord> recs) {
+            persistence.extendedAll(recs);
         }
-        return Optional.empty();
+
+        @Override
+        public void parked(List<LoaderRecord> recs) {
+            for (LoaderRecord rec : recs) holograms.despawn(rec);
+        }
+
+        @Override
+        public void event(String type, String details) {
+            actionLogger.log(type, details);
+        }
+    }
+
+    /** Governor shedding costs; the core calls it from the governor task with its monitor held. */
+    private Map<LoaderRecord, Double> shedCosts(List<LoaderRecord> recs) {
+        return profiler.costs(recs);
     }
 
-    public synchronized int countForOwner(UUID owner) {
-        int c = 0;
-        for (LoaderRecord r : loaders.values()) if (r.owner.equals(owner)) c++;
-        return c;
+    public LoaderCore getCore() {
+        return core;
     }
 
-    public synchronized int countForOwner(UUID owner, LoaderSize size) {
-        int c = 0;
-        for (LoaderRecord r : loaders.values()) if (r.owner.equals(owner) && r.size == size) c++;
-        return c;
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /** Immutable snapshot of every loader; cheap to call repeatedly. */
+    public Collection<LoaderRecord> getAll() {
+        return core.getAll();
+    }
+
+    public Optional<LoaderRecord> getById(UUID id) {
+        return core.getById(id);
+    }
+
+    public Optional<LoaderRecord> getByBlock(Location loc) {
+        return Optional.ofNullable(core.getAt(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
+    }
+
+    /** Loaders whose footprint covers the given chunk. */
+    public List<LoaderRecord> getCoveringChunk(String world, int chunkX, int chunkZ) {
+        return core.getCovering(world, chunkX, chunkZ);
+    }
+
+    public int countForOwner(UUID owner) {
+        return core.countForOwner(owner);
+    }
+
+    public int countForOwner(UUID owner, LoaderSize size) {
+        return core.countForOwner(owner, size);
     }
 
     public boolean isWorldBlacklisted(String worldName) {
@@ -81,347 +141,179 @@ public class LoaderManager {
         return false;
     }
 
-    public boolean isSuspended() {
-        return suspended;
+    public HologramManager getHolograms() {
+        return holograms;
     }
 
-    public synchronized LoaderRecord addLoader(UUID owner, Location blockLoc, LoaderSize size, long durationSeconds) {
-        UUID id = UUID.randomUUID();
-        long now = System.currentTimeMillis();
-        long expires = now + (durationSeconds * 1000L);
-        LoaderRecord rec = new LoaderRecord(id, owner, blockLoc.getWorld().getName(), blockLoc.getBlockX(), blockLoc.getBlockY(), blockLoc.getBlockZ(), size, now, expires);
-        loaders.put(id, rec);
+    public RefreshScheduler getRefresh() {
+        return refresh;
+    }
 
-        if (!suspended) {
-            applyTickets(rec);
-        }
-        spawnOrUpdateHologram(rec, true);
-        saveAll();
-        return rec;
+    public BulkOperations getBulk() {
+        return bulk;
     }
 
-    public synchronized void removeLoader(UUID id, String reason) {
-        LoaderRecord rec = loaders.remove(id);
-        if (rec == null) return;
-        removeTickets(rec);
-        despawnHologram(rec);
-        removeFromData(rec.id);
-        saveDataFile();
-        actionLogger.log("LOADER_REMOVE", "id=" + rec.id + " owner=" + rec.owner + " world=" + rec.world + " xyz=" + rec.x + "," + rec.y + "," + rec.z + " size=" + rec.size + " reason=" + reason);
+    public MsptGovernor getGovernor() {
+        return core.getGovernor();
     }
 
-    public synchronized void expireLoader(UUID id) {
-        LoaderRecord rec = loaders.get(id);
-        if (rec == null) return;
-        // try to break the block naturally is optional; we just unregister and let player remove
-        removeLoader(id, "expired");
+    /** The {@code n} most expensive loaders by {@code metric}, as last measured. */
+    public List<LoaderProfiler.Entry> topLoaders(LoaderProfiler.Metric metric, int n) {
+        return profiler.top(core.getAll(), metric, n);
     }
 
-    public void startTasks() {
-        if (tickTask != null) return;
-
-        // expiry check every 2 seconds
-        tickTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            long now = System.currentTimeMillis();
-            List<UUID> toExpire = new ArrayList<>();
-            synchronized (this) {
-                for (LoaderRecord r : loaders.values()) {
-                    if (now >= r.expiresAtMs) {
-                        toExpire.add(r.id);
-                    }
-                }
-            }
-            for (UUID id : toExpire) {
-                expireLoader(id);
-            }
-        }, 40L, 40L);
+    /** Profiler hook for per-chunk events; a cheap no-op outside loader chunks. */
+    public void profileEvent(LoaderProfiler.Metric metric, String world, int blockX, int blockZ) {
+        profiler.record(metric, world, blockX, blockZ);
+    }
 
-        int holoSeconds = Math.max(2, plugin.getConfig().getInt("holograms.update-seconds", 10));
-        hologramTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            synchronized (this) {
-                for (LoaderRecord r : loaders.values()) {
-                    spawnOrUpdateHologram(r, false);
-                }
-            }
-        }, 20L, holoSeconds * 20L);
-
-        tpsTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            double minTps = plugin.getConfig().getDouble("tps.min-tps", 18.0);
-            double hysteresis = plugin.getConfig().getDouble("tps.hysteresis", 0.5);
-            double[] tps = Bukkit.getServer().getTPS();
-            double tps1m = tps.length > 0 ? tps[0] : 20.0;
-
-            if (!suspended && tps1m < minTps) {
-                suspended = true;
-                plugin.getLogger().warning("[RezzLoaders] TPS low (" + String.format("%.2f", tps1m) + ") < " + minTps + ". Suspending loaders.");
-                actionLogger.log("TPS_SUSPEND", "tps1m=" + tps1m);
-                synchronized (this) {
-                    for (LoaderRecord r : loaders.values()) {
-                        removeTickets(r);
-                    }
-                }
-            } else if (suspended && tps1m >= (minTps + hysteresis)) {
-                suspended = false;
-                plugin.getLogger().info("[RezzLoaders] TPS recovered (" + String.format("%.2f", tps1m) + "). Resuming loaders.");
-                actionLogger.log("TPS_RESUME", "tps1m=" + tps1m);
-                synchronized (this) {
-                    for (LoaderRecord r : loaders.values()) {
-                        applyTickets(r);
-                    }
-                }
-            }
-        }, 200L, 200L);
+    public boolean isProfiling() {
+        return profiler.isEnabled();
     }
 
-    public void shutdown() {
-        if (tickTask != null) tickTask.cancel();
-        if (hologramTask != null) hologramTask.cancel();
-        if (tpsTask != null) tpsTask.cancel();
+    public ActivationQueue getActivation() {
+        return core.getActivation();
+    }
 
-        synchronized (this) {
-            for (LoaderRecord r : loaders.values()) {
-                removeTickets(r);
-                despawnHologram(r);
-            }
-            saveAll();
-        }
+    /** True while any loader is shed for TPS. */
+    public boolean isSuspended() {
+        return core.isSuspended();
     }
 
-    public void loadAll() {
-        if (!dataFile.exists()) {
-            return;
-        }
-        data = YamlConfiguration.loadConfiguration(dataFile);
-        if (!data.isConfigurationSection("loaders")) return;
-
-        var sec = data.getConfigurationSection("loaders");
-        if (sec == null) return;
-
-        for (String key : sec.getKeys(false)) {
-            try {
-                UUID id = UUID.fromString(key);
-                UUID owner = UUID.fromString(sec.getString(key + ".owner"));
-                String world = sec.getString(key + ".world");
-                int x = sec.getInt(key + ".x");
-                int y = sec.getInt(key + ".y");
-                int z = sec.getInt(key + ".z");
-                String sizeStr = sec.getString(key + ".size");
-                LoaderSize size = LoaderSize.fromString(sizeStr);
-                if (size == null) {
-                    // Backwards-compat / corruption guard: older data or manual edits may omit/invalid size.
-                    size = LoaderSize.ONE_BY_ONE;
-                    plugin.getLogger().warning("Loader " + id + " had missing/invalid size ('" + sizeStr + "'). Defaulting to 1x1.");
-                }
-                long created = sec.getLong(key + ".createdAtMs");
-                long expires = sec.getLong(key + ".expiresAtMs");
+    public int getSuspendedCount() {
+        return core.getSuspendedCount();
+    }
 
-                LoaderRecord rec = new LoaderRecord(id, owner, world, x, y, z, size, created, expires);
-                loaders.put(id, rec);
+    /** A player joined; their parked loaders rejoin through the activation ramp. Returns how many. */
+    public int onPlayerJoin(UUID player) {
+        return core.unparkOwner(player);
+    }
 
-                if (!suspended) {
-                    applyTickets(rec);
-                }
-                spawnOrUpdateHologram(rec, true);
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to load loader entry: " + key + " - " + e.getMessage());
-            }
-        }
+    public void onPlayerQuit(UUID player) {
+        platform.playerQuit(player);
+    }
 
-        plugin.getLogger().info("Loaded " + loaders.size() + " loaders from disk.");
+    public LoaderRecord addLoader(UUID owner, Location blockLoc, LoaderSize size, long durationSeconds) {
+        return core.add(owner, blockLoc.getWorld().getName(), blockLoc.getBlockX(), blockLoc.getBlockY(), blockLoc.getBlockZ(), size, durationSeconds);
     }
 
-    private void applyTickets(LoaderRecord rec) {
-        World w = Bukkit.getWorld(rec.world);
-        if (w == null) return;
-        if (rec.size == null) return; // extra safety; should not happen after load migration
+    public void removeLoader(UUID id, String reason) {
+        core.remove(id, reason);
+    }
 
-        int cx = rec.x >> 4;
-        int cz = rec.z >> 4;
+    public void expireLoader(UUID id) {
+        // try to break the block naturally is optional; we just unregister and let player remove
+        core.remove(id, "expired");
+    }
 
-        for (int dx = -rec.size.radius; dx <= rec.size.radius; dx++) {
-            for (int dz = -rec.size.radius; dz <= rec.size.radius; dz++) {
-                w.addPluginChunkTicket(cx + dx, cz + dz, plugin);
-            }
-        }
+    public void startTasks() {
+        if (hologramTask != null) return;
 
-        // After (re)applying tickets, nudge tile entities so comparator/hopper filters don't get stuck
-        // after chunk unload/reload or cancelled physics updates.
-        if (plugin.getConfig().getBoolean("refresh.enabled", true)) {
-            long delay = Math.max(1L, plugin.getConfig().getLong("refresh.delay-ticks", 1L));
-            Bukkit.getScheduler().runTaskLater(plugin, () -> refreshTileEntitiesAround(rec), delay);
-        }
-    }
+        // Expiry, the activation ramp and the MSPT governor. These and the loops below run on the
+        // main thread, or the global region thread on Folia; per-chunk work is dispatched from there.
+        core.start(platform);
 
-    private void refreshTileEntitiesAround(LoaderRecord rec) {
-        // Best-effort only: never let this throw during tick.
-        try {
-            World w = Bukkit.getWorld(rec.world);
-            if (w == null) return;
-            if (rec.size == null) return;
-
-            int cx = rec.x >> 4;
-            int cz = rec.z >> 4;
-
-            for (int dx = -rec.size.radius; dx <= rec.size.radius; dx++) {
-                for (int dz = -rec.size.radius; dz <= rec.size.radius; dz++) {
-                    Chunk c = w.getChunkAt(cx + dx, cz + dz);
-                    if (!c.isLoaded()) c.load();
-
-                    // 1) Refresh all tile entities (containers, hoppers, etc.)
-                    for (BlockState bs : c.getTileEntities()) {
-                        try {
-                            bs.update(true, true);
-                            Block b = bs.getBlock();
-                            // 2) Nudge the container block itself (forces neighbor updates in many cases)
-                            nudgeBlock(b);
-                            // 3) Specifically resync comparators reading this container
-                            nudgeComparatorsAdjacentTo(b);
-                        } catch (Throwable ignored) {
-                            // ignore per-block
-                        }
-                    }
-                }
-            }
-        } catch (Throwable ignored) {
-            // ignore
-        }
-    }
+        // Holograms: visibility culling and phase-staggered updates are handled per tick.
+        hologramTask = platform.repeat(holograms::tick, 20L, 1L);
 
-    private void nudgeBlock(Block b) {
-        try {
-            BlockData data = b.getBlockData();
-            b.setBlockData(data, true); // applyPhysics=true
-        } catch (Throwable ignored) {
-            // ignore
+        // Tile-entity refresh work is drained under a per-tick time budget.
+        refreshTask = platform.repeat(refresh::tick, 1L, 1L);
+
+        profilerTask = platform.repeat(profiler::tick, 1L, 1L);
+
+        if (plugin.getConfig().getBoolean("metrics.export-enabled", true)) {
+            long exportTicks = Math.max(1L, plugin.getConfig().getLong("metrics.export-interval-seconds", 15L)) * 20L;
+            metricsTask = platform.repeat(metricsExporter::export, exportTicks, exportTicks);
         }
     }
 
-    private void nudgeComparatorsAdjacentTo(Block container) {
-        try {
-            for (BlockFace face : new BlockFace[]{BlockFace.NORTH, BlockFace.SOUTH, BlockFace.EAST, BlockFace.WEST, BlockFace.UP, BlockFace.DOWN}) {
-                Block nb = container.getRelative(face);
-                if (nb.getType() == Material.COMPARATOR) {
-                    nudgeBlock(nb);
-                }
-            }
-        } catch (Throwable ignored) {
-            // ignore
+    public void shutdown() {
+        bulk.cancel();
+        core.stop();
+        if (hologramTask != null) hologramTask.cancel();
+        if (refreshTask != null) refreshTask.cancel();
+        if (profilerTask != null) profilerTask.cancel();
+        if (metricsTask != null) metricsTask.cancel();
+
+        core.releaseAll();
+        core.settleParked();
+        for (LoaderRecord r : core.getAll()) {
+            holograms.despawn(r);
         }
+        refresh.clear();
+        persistence.shutdown();
     }
 
-    private void removeTickets(LoaderRecord rec) {
-        World w = Bukkit.getWorld(rec.world);
-        if (w == null) return;
-        if (rec.size == null) return; // extra safety; should not happen after load migration
-
-        int cx = rec.x >> 4;
-        int cz = rec.z >> 4;
-
-        for (int dx = -rec.size.radius; dx <= rec.size.radius; dx++) {
-            for (int dz = -rec.size.radius; dz <= rec.size.radius; dz++) {
-                w.removePluginChunkTicket(cx + dx, cz + dz, plugin);
+    /**
+     * Reads storage on the storage thread and registers the loaders there; their tickets are then
+     * applied in batches by the core's startup ramp, so enabling the plugin does no per-loader work
+     * on the main thread. If the read fails the core stays LOADING, which refuses placements and
+     * protects unknown lodestones, and nothing is written back until a restart reads storage.
+     */
+    public void loadAll() {
+        core.beginLoading();
+        long start = System.currentTimeMillis();
+        persistence.loadAsync(core::loadStaged).whenComplete((records, err) -> {
+            if (err != null) {
+                loadError = String.valueOf(err.getMessage());
+                plugin.getLogger().severe("Failed to load loaders: " + loadError
+                        + ". Loaders stay inactive and storage is left untouched; fix the store and restart.");
+                return;
             }
-        }
+            plugin.getLogger().info("Loaded " + records.size() + " loaders from " + persistence.storeName() + " storage in "
+                    + (System.currentTimeMillis() - start) + " ms; activating them in batches.");
+        });
     }
 
-    private void spawnOrUpdateHologram(LoaderRecord rec, boolean forceSpawn) {
-        if (!plugin.getConfig().getBoolean("holograms.enabled", true)) return;
-        if (rec.size == null) return; // extra safety; should not happen after load migration
-
-        World w = Bukkit.getWorld(rec.world);
-        if (w == null) return;
-
-        Location base = new Location(w, rec.x + 0.5, rec.y + plugin.getConfig().getDouble("holograms.y-offset", 1.8), rec.z + 0.5);
-
-        TextDisplay display = findExistingTextDisplayNear(base);
-        if (display == null && !forceSpawn) {
-            // no existing hologram; spawn
-            display = w.spawn(base, TextDisplay.class, td -> {
-                td.setBillboard(org.bukkit.entity.Display.Billboard.CENTER);
-                td.setSeeThrough(true);
-                td.setShadowed(false);
-                td.setPersistent(false);
-            });
-        } else if (display == null) {
-            display = w.spawn(base, TextDisplay.class, td -> {
-                td.setBillboard(org.bukkit.entity.Display.Billboard.CENTER);
-                td.setSeeThrough(true);
-                td.setShadowed(false);
-                td.setPersistent(false);
-            });
-        }
-
-        if (display != null) {
-            long now = System.currentTimeMillis();
-            long remainingMs = Math.max(0L, rec.expiresAtMs - now);
-            String remaining = TimeUtil.formatDuration(remainingMs);
-            int chunkCount = rec.size == LoaderSize.ONE_BY_ONE ? 1 : 25;
-            String text = "§6§lChunk Loader\n" +
-                    "§e" + rec.size.size + "x" + rec.size.size + " §7(" + chunkCount + " chunks)\n" +
-                    "§a" + remaining + "§7 remaining" + (suspended ? "\n§cSuspended (TPS)" : "");
-            display.setText(text);
-        }
+    public boolean isReady() {
+        return core.isReady();
     }
 
-    private TextDisplay findExistingTextDisplayNear(Location loc) {
-        double r = 1.5;
-        Collection<Entity> nearby = loc.getWorld().getNearbyEntities(loc, r, r, r);
-        for (Entity e : nearby) {
-            if (e instanceof TextDisplay td) {
-                // best-effort heuristic: look for our title line
-                String t = td.getText();
-                if (t != null && t.contains("Chunk Loader")) {
-                    return td;
-                }
-            }
-        }
-        return null;
+    /** Why reading storage at startup failed, or null. */
+    public String getLoadError() {
+        return loadError;
     }
 
-    private void despawnHologram(LoaderRecord rec) {
-        World w = Bukkit.getWorld(rec.world);
-        if (w == null) return;
-        Location base = new Location(w, rec.x + 0.5, rec.y + plugin.getConfig().getDouble("holograms.y-offset", 1.8), rec.z + 0.5);
-        TextDisplay td = findExistingTextDisplayNear(base);
-        if (td != null) {
-            td.remove();
-        }
+    public LoaderCore.Readiness getReadiness() {
+        return core.getReadiness();
     }
 
-    private void removeFromData(UUID id) {
-        if (data.isConfigurationSection("loaders")) {
-            data.set("loaders." + id.toString(), null);
-        }
+    /**
+     * A chunk finished loading. If a loader holds a ticket on it, nudge its redstone so
+     * comparator/hopper filters don't get stuck after the unload/reload. Chunks that stayed
+     * resident never get here, so they are not disturbed.
+     */
+    public void onChunkLoaded(String world, int chunkX, int chunkZ) {
+        if (!plugin.getConfig().getBoolean("refresh.enabled", true)) return;
+        if (core.ticketRefCount(world, chunkX, chunkZ) == 0) return;
+        refresh.enqueue(world, chunkX, chunkZ);
     }
 
-    private synchronized void saveAll() {
-        data.set("loaders", null);
-        for (LoaderRecord r : loaders.values()) {
-            String path = "loaders." + r.id;
-            data.set(path + ".owner", r.owner.toString());
-            data.set(path + ".world", r.world);
-            data.set(path + ".x", r.x);
-            data.set(path + ".y", r.y);
-            data.set(path + ".z", r.z);
-            // Store as user-friendly labels to avoid parsing issues across versions.
-            LoaderSize sz = (r.size != null ? r.size : LoaderSize.ONE_BY_ONE);
-            data.set(path + ".size", (sz == LoaderSize.FIVE_BY_FIVE ? "5x5" : "1x1"));
-            data.set(path + ".createdAtMs", r.createdAtMs);
-            data.set(path + ".expiresAtMs", r.expiresAtMs);
+    /** Drops cached redstone scans for chunks no loader covers any more. */
+    private void forgetScans(LoaderRecord rec) {
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        int r = LoaderIndex.radiusOf(rec);
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                if (!core.isCovered(rec.world, cx + dx, cz + dz)) {
+                    refresh.getScans().invalidate(rec.world, cx + dx, cz + dz);
+                }
+            }
         }
-        saveDataFile();
     }
 
-    private void saveDataFile() {
-        try {
-            if (!plugin.getDataFolder().exists()) plugin.getDataFolder().mkdirs();
-            data.save(dataFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save loaders.yml: " + e.getMessage());
+    /** A block was placed or broken; re-scan its chunk if a loader covers it and the block matters for refresh. */
+    public void onBlockChanged(org.bukkit.block.Block block, org.bukkit.Material type) {
+        if (!RedstoneScanCache.isRelevant(type)) return;
+        String world = block.getWorld().getName();
+        int cx = block.getX() >> 4;
+        int cz = block.getZ() >> 4;
+        if (core.isCovered(world, cx, cz)) {
+            refresh.getScans().invalidate(world, cx, cz);
         }
     }
 
-
     public static class PlaceResult {
         public final boolean success;
         public final String message;
@@ -433,20 +325,30 @@ public class LoaderManager {
         }
     }
 
-    public synchronized java.util.List<LoaderRecord> getLoadersForOwner(java.util.UUID owner) {
-        java.util.List<LoaderRecord> out = new java.util.ArrayList<>();
-        for (LoaderRecord r : loaders.values()) {
-            if (r.owner.equals(owner)) out.add(r);
-        }
-        return out;
+    public java.util.List<LoaderRecord> getLoadersForOwner(java.util.UUID owner) {
+        return core.listForOwner(owner);
+    }
+
+    /** Loaders owned by {@code owner} as currently persisted by the configured store. */
+    public java.util.concurrent.CompletableFuture<List<LoaderRecord>> findStoredByOwner(UUID owner) {
+        return persistence.findByOwner(owner);
     }
 
-    public synchronized LoaderRecord getByLocation(Location loc) {
+    /** Loaders in {@code world} as currently persisted by the configured store. */
+    public java.util.concurrent.CompletableFuture<List<LoaderRecord>> findStoredByWorld(String world) {
+        return persistence.findByWorld(world);
+    }
+
+    public LoaderRecord getByLocation(Location loc) {
         return getByBlock(loc).orElse(null);
     }
 
     public PlaceResult placeLoader(org.bukkit.entity.Player player, Location loc, LoaderSize size, long durationSec) {
         if (durationSec <= 0) return new PlaceResult(false, "Invalid duration.", null);
+        // Per-player limits cannot be checked before the stored loaders are registered.
+        if (core.getReadiness() == LoaderCore.Readiness.LOADING) {
+            return new PlaceResult(false, "Chunk loaders are still loading; try again in a moment.", null);
+        }
         if (isWorldBlacklisted(loc.getWorld().getName())) {
             return new PlaceResult(false, "Chunk loaders are disabled in this world.", null);
         }
@@ -455,29 +357,32 @@ public class LoaderManager {
         int max1 = plugin.getConfig().getInt("limits.max-1x1-per-player", 2);
         int max5 = plugin.getConfig().getInt("limits.max-5x5-per-player", 1);
 
-        synchronized (this) {
-            int total = countForOwner(player.getUniqueId());
-            int bySize = countForOwner(player.getUniqueId(), size);
-            if (total >= maxTotal && !player.hasPermission("rezzloaders.admin")) {
-                return new PlaceResult(false, "You are at the maximum active loaders limit (" + maxTotal + ").", null);
-            }
-            if (size == LoaderSize.ONE_BY_ONE && bySize >= max1 && !player.hasPermission("rezzloaders.admin")) {
-                return new PlaceResult(false, "You are at the maximum 1x1 loaders limit (" + max1 + ").", null);
-            }
-            if (size == LoaderSize.FIVE_BY_FIVE && bySize >= max5 && !player.hasPermission("rezzloaders.admin")) {
-                return new PlaceResult(false, "You are at the maximum 5x5 loaders limit (" + max5 + ").", null);
+        // Permission is checked up front; the counts are checked under the core's writer lock so two
+        // placements cannot both slip under the limit.
+        boolean bypass = player.hasPermission("rezzloaders.admin");
+        UUID owner = player.getUniqueId();
+        String[] denied = new String[1];
+        LoaderRecord rec = core.add(owner, loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), size, durationSec, c -> {
+            if (bypass) return true;
+            int total = c.countForOwner(owner);
+            int bySize = c.countForOwner(owner, size);
+            if (total >= maxTotal) {
+                denied[0] = "You are at the maximum active loaders limit (" + maxTotal + ").";
+            } else if (size == LoaderSize.ONE_BY_ONE && bySize >= max1) {
+                denied[0] = "You are at the maximum 1x1 loaders limit (" + max1 + ").";
+            } else if (size == LoaderSize.FIVE_BY_FIVE && bySize >= max5) {
+                denied[0] = "You are at the maximum 5x5 loaders limit (" + max5 + ").";
             }
+            return denied[0] == null;
+        });
+        if (rec == null) return new PlaceResult(false, denied[0], null);
 
-            LoaderRecord rec = addLoader(player.getUniqueId(), loc, size, durationSec);
-            actionLogger.log("LOADER_PLACE", "id=" + rec.id + " owner=" + rec.owner + " world=" + rec.world + " xyz=" + rec.x + "," + rec.y + "," + rec.z + " size=" + rec.size + " durationSec=" + durationSec);
-            return new PlaceResult(true, "", rec.id);
-        }
+        actionLogger.log("LOADER_PLACE", "id=" + rec.id + " owner=" + rec.owner + " world=" + rec.world + " xyz=" + rec.x + "," + rec.y + "," + rec.z + " size=" + rec.size + " durationSec=" + durationSec);
+        return new PlaceResult(true, "", rec.id);
     }
 
-    public synchronized boolean removeById(java.util.UUID id, String actor) {
-        if (!loaders.containsKey(id)) return false;
-        removeLoader(id, "removed_by_" + actor);
-        return true;
+    public boolean removeById(java.util.UUID id, String actor) {
+        return core.remove(id, "removed_by_" + actor);
     }
 
     public void reloadFromConfig() {
@@ -498,7 +403,8 @@ public class LoaderManager {
                 org.bukkit.ChatColor.YELLOW + "Location: " + org.bukkit.ChatColor.WHITE + rec.x + "," + rec.y + "," + rec.z + "\n" +
                 org.bukkit.ChatColor.YELLOW + "Chunks: " + org.bukkit.ChatColor.WHITE + chunks + "\n" +
                 org.bukkit.ChatColor.YELLOW + "Remaining: " + org.bukkit.ChatColor.AQUA + TimeUtil.formatDuration(remainingMs) +
-                (suspended ? org.bukkit.ChatColor.RED + " (suspended)" : "");
+                (rec.held ? org.bukkit.ChatColor.RED + " (suspended by admin)" : rec.suspended ? org.bukkit.ChatColor.RED + " (suspended)" : "")
+                + (rec.parkedAtMs != 0 ? org.bukkit.ChatColor.GRAY + " (parked, owner offline)" : "");
     }
 
     public static String locShort(Location loc) {
@@ -0,0 +1,284 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind front for the configured {@link LoaderStore}.
+ *
+ * Mutations are only queued. A single background thread coalesces everything that changed within
+ * {@code storage.flush-interval-ms} into one {@link LoaderStore#write} call; shutdown performs a
+ * final synchronous flush.
+ */
+public class LoaderPersistence {
+
+    private final JavaPlugin plugin;
+    private final File dataFile;
+    private final Supplier<Collection<LoaderRecord>> snapshotSupplier;
+    private final long flushIntervalMs;
+    private final LoaderStore store;
+    private final MetricsRegistry.Histogram saveTime;
+    private final MetricsRegistry.Counter saveBytes;
+    private final MetricsRegistry.Counter saveFailures;
+
+    private final ConcurrentLinkedQueue<LoaderStore.Mutation> pending = new ConcurrentLinkedQueue<>();
+    private List<LoaderStore.Mutation> unwritten = new ArrayList<>(); // storage thread only
+
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object writeLock = new Object();
+    private final Object pendingLock = new Object(); // keeps a batch of mutations in one flush
+    private volatile boolean loaded;
+
+    public LoaderPersistence(JavaPlugin plugin, File dataFile, Supplier<Collection<LoaderRecord>> snapshotSupplier, MetricsRegistry metrics) {
+        this.plugin = plugin;
+        this.dataFile = dataFile;
+        this.snapshotSupplier = snapshotSupplier;
+        this.flushIntervalMs = Math.max(0L, plugin.getConfig().getLong("storage.flush-interval-ms", 2000L));
+        this.store = createStore(plugin, dataFile);
+        this.saveTime = metrics.latency("rezzloaders_save_seconds", "Time to write one coalesced batch to the store.");
+        this.saveBytes = metrics.counter("rezzloaders_save_bytes_total", "Bytes written by the store (0 for sqlite).");
+        this.saveFailures = metrics.counter("rezzloaders_save_failures_total", "Store writes that failed and were retried.");
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RezzLoaders-Storage");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static LoaderStore createStore(JavaPlugin plugin, File dataFile) {
+        String type = plugin.getConfig().getString("storage.type", "yaml");
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "journal" -> {
+                long threshold = Math.max(1L, plugin.getConfig().getLong("storage.journal.compact-threshold", 10000L));
+                long intervalMs = Math.max(1L, plugin.getConfig().getLong("storage.journal.compact-interval-minutes", 30L)) * 60_000L;
+                return new JournalLoaderStore(plugin.getDataFolder(), plugin.getLogger(), threshold, intervalMs);
+            }
+            case "sqlite" -> {
+                String file = plugin.getConfig().getString("storage.sqlite.file", "loaders.db");
+                return new SqliteLoaderStore(new File(plugin.getDataFolder(), file), plugin.getLogger());
+            }
+            case "yaml" -> {
+                return new YamlLoaderStore(dataFile, plugin.getLogger());
+            }
+            default -> {
+                plugin.getLogger().warning("Unknown storage.type '" + type + "'; using yaml.");
+                return new YamlLoaderStore(dataFile, plugin.getLogger());
+            }
+        }
+    }
+
+    public String storeName() {
+        return store.name();
+    }
+
+    /** Reads every persisted loader. Must run before any mutation is queued. */
+    public List<LoaderRecord> load() throws IOException {
+        migrateFromYaml(store, dataFile, plugin.getLogger());
+        List<LoaderRecord> records = store.loadAll();
+        loaded = true;
+        return records;
+    }
+
+    /**
+     * One-time migration from loaders.yml into a non-yaml {@code store} that holds no data yet; the
+     * original is kept as loaders.yml.migrated. Returns the number of loaders imported, or -1 if
+     * there was nothing to migrate.
+     */
+    static int migrateFromYaml(LoaderStore store, File dataFile, Logger logger) throws IOException {
+        if (store instanceof YamlLoaderStore || store.hasData() || !dataFile.exists()) return -1;
+        List<LoaderRecord> records = new YamlLoaderStore(dataFile, logger).loadAll();
+        store.importAll(records);
+        Files.move(dataFile.toPath(), new File(dataFile.getParentFile(), dataFile.getName() + ".migrated").toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Migrated " + records.size() + " loaders from loaders.yml to " + store.name() + " storage.");
+        return records.size();
+    }
+
+    /**
+     * Runs {@link #load()} on the storage thread and hands the records to {@code register} there,
+     * ahead of any flush, so a snapshot write can never miss them.
+     */
+    public CompletableFuture<List<LoaderRecord>> loadAsync(Consumer<List<LoaderRecord>> register) {
+        CompletableFuture<List<LoaderRecord>> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    List<LoaderRecord> records = load();
+                    register.accept(records);
+                    future.complete(records);
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public void added(LoaderRecord rec) {
+        queue(LoaderStore.Mutation.Op.ADD, rec);
+    }
+
+    public void removed(LoaderRecord rec) {
+        queue(LoaderStore.Mutation.Op.REMOVE, rec);
+    }
+
+    /** The loader's expiresAtMs changed. */
+    public void extended(LoaderRecord rec) {
+        queue(LoaderStore.Mutation.Op.EXTEND, rec);
+    }
+
+    /** Removals that must reach the store in the same write. */
+    public void removedAll(Collection<LoaderRecord> recs) {
+        queueAll(LoaderStore.Mutation.Op.REMOVE, recs);
+    }
+
+    /** Expiry changes that must reach the store in the same write. */
+    public void extendedAll(Collection<LoaderRecord> recs) {
+        queueAll(LoaderStore.Mutation.Op.EXTEND, recs);
+    }
+
+    /** Persisted loaders owned by {@code owner}, read after flushing pending changes. */
+    public CompletableFuture<List<LoaderRecord>> findByOwner(UUID owner) {
+        return query(() -> store.findByOwner(owner));
+    }
+
+    /** Persisted loaders in {@code world}, read after flushing pending changes. */
+    public CompletableFuture<List<LoaderRecord>> findByWorld(String world) {
+        return query(() -> store.findByWorld(world));
+    }
+
+    private CompletableFuture<List<LoaderRecord>> query(Callable<List<LoaderRecord>> q) {
+        CompletableFuture<List<LoaderRecord>> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    dirty.set(false);
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        markDirty();
+                        throw e;
+                    }
+                    future.complete(q.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void queue(LoaderStore.Mutation.Op op, LoaderRecord rec) {
+        pending.add(new LoaderStore.Mutation(op, rec));
+        markDirty();
+    }
+
+    private void queueAll(LoaderStore.Mutation.Op op, Collection<LoaderRecord> recs) {
+        if (recs.isEmpty()) return;
+        synchronized (pendingLock) {
+            for (LoaderRecord rec : recs) pending.add(new LoaderStore.Mutation(op, rec));
+        }
+        markDirty();
+    }
+
+    private void markDirty() {
+        dirty.set(true);
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::flushScheduled, flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // shutting down; the final synchronous flush will pick this up
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushScheduled() {
+        flushScheduled.set(false);
+        if (!dirty.getAndSet(false)) return;
+        try {
+            flush();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to save loaders (" + store.name() + "): " + e.getMessage());
+            markDirty(); // retry on the next interval
+        }
+    }
+
+    /** Stops the background writer and synchronously writes the current state. */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        dirty.set(false);
+        synchronized (writeLock) {
+            if (!loaded) {
+                // A snapshot taken now would be missing the stored loaders; leave the store as it is.
+                plugin.getLogger().severe("Loaders were never read from " + store.name() + " storage; skipping the final save.");
+                store.close();
+                return;
+            }
+            try {
+                flush();
+                store.compact(List.copyOf(snapshotSupplier.get()));
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to save loaders (" + store.name() + "): " + e.getMessage());
+            }
+            store.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        synchronized (writeLock) {
+            // Until storage has been read, a write (or a snapshot rewrite) could replace it with a partial registry.
+            if (!loaded) return;
+            List<LoaderStore.Mutation> batch = unwritten;
+            LoaderStore.Mutation m;
+            synchronized (pendingLock) {
+                while ((m = pending.poll()) != null) batch.add(m);
+            }
+            if (batch.isEmpty()) return;
+            long start = System.nanoTime();
+            try {
+                saveBytes.add(store.write(batch, snapshotSupplier));
+            } catch (IOException e) {
+                saveFailures.inc();
+                throw e;
+            }
+            saveTime.observeSince(start);
+            unwritten = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sampling profiler that attributes server cost to loader footprints.
+ *
+ * Hopper transfers, redstone updates and item spawns are counted per chunk as they happen, straight
+ * into {@link LoaderIndex.ChunkEntry}, and turned into per-minute rates every
+ * {@code profiler.window-seconds}. Entity and tile-entity counts are sampled a few loaded chunks per
+ * tick ({@code profiler.chunks-per-tick}). A chunk shared by several loaders is split evenly between
+ * them. {@link #tick()} runs on the main (or global region) thread and the index is read without
+ * locking. On a region-threaded server chunk samples are taken on the owning region a tick or so
+ * later, and event counts from different regions may occasionally lose an increment; the figures
+ * are estimates either way.
+ */
+public class LoaderProfiler {
+
+    public enum Metric {
+        COST, ENTITIES, TILES, HOPPERS, REDSTONE, ITEMS;
+
+        public static Metric fromString(String s) {
+            if (s == null) return null;
+            try {
+                return valueOf(s.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /** One loader and its value for the requested metric. */
+    public static final class Entry {
+        public final LoaderRecord record;
+        public final double value;
+
+        Entry(LoaderRecord record, double value) {
+            this.record = record;
+            this.value = value;
+        }
+    }
+
+    private final RezzLoadersPlugin plugin;
+    private final BukkitPlatform platform;
+    private final LoaderIndex index;
+
+    private List<LoaderIndex.ChunkEntry> sweep = new ArrayList<>();
+    private int sweepPos;
+    private long windowStartMs = System.currentTimeMillis();
+
+    public LoaderProfiler(RezzLoadersPlugin plugin, LoaderIndex index) {
+        this.plugin = plugin;
+        this.platform = plugin.getPlatform();
+        this.index = index;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getConfig().getBoolean("profiler.enabled", true);
+    }
+
+    /** Counts one HOPPERS, REDSTONE or ITEMS event at a block; a no-op outside loader chunks. */
+    public void record(Metric metric, String world, int blockX, int blockZ) {
+        LoaderIndex.ChunkEntry e = index.entry(world, blockX >> 4, blockZ >> 4);
+        if (e == null) return;
+        switch (metric) {
+            case HOPPERS -> e.hopperMoves++;
+            case REDSTONE -> e.redstoneUpdates++;
+            case ITEMS -> e.itemSpawns++;
+            default -> {
+                // gauges are sampled, not counted
+            }
+        }
+    }
+
+    /** Runs every tick: samples a few chunks and rolls the event window when it is due. */
+    public void tick() {
+        if (!isEnabled()) return;
+
+        long now = System.currentTimeMillis();
+        long windowMs = Math.max(5L, plugin.getConfig().getLong("profiler.window-seconds", 60L)) * 1000L;
+        if (now - windowStartMs >= windowMs) {
+            double perMinute = 60_000.0 / (now - windowStartMs);
+            for (LoaderIndex.ChunkEntry e : index.entries()) {
+                e.hopperRate = e.hopperMoves * perMinute;
+                e.redstoneRate = e.redstoneUpdates * perMinute;
+                e.itemSpawnRate = e.itemSpawns * perMinute;
+                e.hopperMoves = 0;
+                e.redstoneUpdates = 0;
+                e.itemSpawns = 0;
+            }
+            windowStartMs = now;
+        }
+
+        if (sweepPos >= sweep.size()) {
+            // Entries removed from the index meanwhile are harmless: sampling them only writes to a dead object.
+            sweep = new ArrayList<>(index.entries());
+            sweepPos = 0;
+        }
+        int budget = Math.max(1, plugin.getConfig().getInt("profiler.chunks-per-tick", 4));
+        while (budget > 0 && sweepPos < sweep.size()) {
+            LoaderIndex.ChunkEntry e = sweep.get(sweepPos++);
+            World w = Bukkit.getWorld(index.worldName(e.worldId));
+            if (w == null) {
+                e.entities = 0;
+                e.tileEntities = 0;
+            } else if (BukkitPlatform.REGIONIZED) {
+                platform.runAt(w, e.chunkX, e.chunkZ, () -> sample(w, e));
+                budget--;
+            } else if (sample(w, e)) {
+                budget--;
+            }
+        }
+    }
+
+    /** Samples one chunk's entity counts; false if it is not loaded. Runs on the chunk's thread. */
+    private static boolean sample(World w, LoaderIndex.ChunkEntry e) {
+        if (!w.isChunkLoaded(e.chunkX, e.chunkZ)) {
+            e.entities = 0;
+            e.tileEntities = 0;
+            return false;
+        }
+        Chunk c = w.getChunkAt(e.chunkX, e.chunkZ);
+        e.entities = c.getEntities().length;
+        e.tileEntities = c.getTileEntities().length;
+        return true;
+    }
+
+    /** Estimated cost of a loader's footprint; higher is worse. */
+    public double cost(LoaderRecord rec) {
+        return value(rec, Metric.COST);
+    }
+
+    /** {@link #cost} of each loader, reading the weights once for the whole pass. */
+    public Map<LoaderRecord, Double> costs(Collection<LoaderRecord> records) {
+        double[] weights = weights();
+        Map<LoaderRecord, Double> out = new HashMap<>(records.size() * 2);
+        for (LoaderRecord rec : records) out.put(rec, value(rec, Metric.COST, weights));
+        return out;
+    }
+
+    public double value(LoaderRecord rec, Metric metric) {
+        return value(rec, metric, weights());
+    }
+
+    private double value(LoaderRecord rec, Metric metric, double[] weights) {
+        double total = 0.0;
+        int r = LoaderIndex.radiusOf(rec);
+        int cx = rec.x >> 4;
+        int cz = rec.z >> 4;
+        for (int dx = -r; dx <= r; dx++) {
+            for (int dz = -r; dz <= r; dz++) {
+                LoaderIndex.ChunkEntry e = index.entry(rec.world, cx + dx, cz + dz);
+                if (e == null) continue;
+                total += chunkValue(e, metric, weights) / Math.max(1, e.loaderCount());
+            }
+        }
+        return total;
+    }
+
+    /** The {@code n} highest-scoring loaders for {@code metric}. */
+    public List<Entry> top(Collection<LoaderRecord> records, Metric metric, int n) {
+        double[] weights = weights();
+        List<Entry> out = new ArrayList<>(records.size());
+        for (LoaderRecord rec : records) out.add(new Entry(rec, value(rec, metric, weights)));
+        out.sort(Comparator.comparingDouble((Entry e) -> e.value).reversed());
+        return out.size() > n ? new ArrayList<>(out.subList(0, n)) : out;
+    }
+
+    /** COST weights, in the order entity, tile entity, hopper/min, redstone/min, item/min. */
+    private double[] weights() {
+        return new double[]{
+                plugin.getConfig().getDouble("profiler.weights.entity", 1.0),
+                plugin.getConfig().getDouble("profiler.weights.tile-entity", 0.5),
+                plugin.getConfig().getDouble("profiler.weights.hopper-per-minute", 0.05),
+                plugin.getConfig().getDouble("profiler.weights.redstone-per-minute", 0.02),
+                plugin.getConfig().getDouble("profiler.weights.item-per-minute", 0.1)};
+    }
+
+    private static double chunkValue(LoaderIndex.ChunkEntry e, Metric metric, double[] w) {
+        return switch (metric) {
+            case ENTITIES -> e.entities;
+            case TILES -> e.tileEntities;
+            case HOPPERS -> e.hopperRate;
+            case REDSTONE -> e.redstoneRate;
+            case ITEMS -> e.itemSpawnRate;
+            case COST -> e.entities * w[0] + e.tileEntities * w[1] + e.hopperRate * w[2]
+                    + e.redstoneRate * w[3] + e.itemSpawnRate * w[4];
+        };
+    }
+}
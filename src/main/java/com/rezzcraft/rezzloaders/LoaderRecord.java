@@ -1,7 +1,5 @@
 package com.rezzcraft.rezzloaders;
 
-import org.bukkit.Location;
-
 import java.util.UUID;
 
 public class LoaderRecord {
@@ -13,10 +11,19 @@ public class LoaderRecord {
     public final int z;
     public final LoaderSize size;
     public final long createdAtMs;
-    public final long expiresAtMs;
-    public UUID hologramEntityId;
+    /** Only changed by {@link LoaderCore}, under its monitor and with the record out of the expiry queue. */
+    public volatile long expiresAtMs;
+    public volatile UUID hologramEntityId;
+    /** Runtime only: last text pushed to the hologram, so unchanged text is never re-sent. */
+    public volatile String hologramText;
 
-    public boolean suspended;
+    public volatile boolean suspended;
+    /** Runtime only: suspended by an admin until resumed; unlike {@link #suspended} the governor never lifts it. */
+    public volatile boolean held;
+    /** Runtime only: when the loader was parked because its owner went offline; 0 while not parked. */
+    public volatile long parkedAtMs;
+    /** Runtime only: whether this loader currently holds references in the ChunkTicketRegistry. */
+    public volatile boolean ticketsHeld;
 
     public LoaderRecord(UUID id, UUID owner, String world, int x, int y, int z, LoaderSize size,
                         long createdAtMs, long expiresAtMs) {
@@ -30,10 +37,4 @@ public class LoaderRecord {
         this.createdAtMs = createdAtMs;
         this.expiresAtMs = expiresAtMs;
     }
-
-    public Location getBlockLocation(org.bukkit.Server server) {
-        var w = server.getWorld(world);
-        if (w == null) return null;
-        return new Location(w, x, y, z);
-    }
 }
@@ -0,0 +1,11 @@
+package com.rezzcraft.rezzloaders;
+
+/** Repeating tasks on the server (main) thread, measured in ticks. */
+public interface LoaderScheduler {
+
+    interface Task {
+        void cancel();
+    }
+
+    Task repeat(Runnable task, long delayTicks, long periodTicks);
+}
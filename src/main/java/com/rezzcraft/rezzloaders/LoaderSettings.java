@@ -0,0 +1,18 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.List;
+
+/** Read-only configuration lookups with defaults, read live so {@code /loader reload} applies. */
+public interface LoaderSettings {
+
+    boolean getBoolean(String path, boolean def);
+
+    int getInt(String path, int def);
+
+    long getLong(String path, long def);
+
+    double getDouble(String path, double def);
+
+    /** The list at {@code path}, or an empty list. */
+    List<String> getStringList(String path);
+}
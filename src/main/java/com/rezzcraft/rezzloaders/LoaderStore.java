@@ -0,0 +1,59 @@
+package com.rezzcraft.rezzloaders;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Storage backend for the loader registry. Selected with {@code storage.type} in config.yml.
+ *
+ * All methods except construction run on the single storage thread owned by
+ * {@link LoaderPersistence} (or on the main thread during startup, before that thread does any
+ * work), so implementations need no locking of their own.
+ */
+public interface LoaderStore {
+
+    /** One change to a loader, in the order it happened. */
+    final class Mutation {
+        public enum Op { ADD, REMOVE, EXTEND }
+
+        public final Op op;
+        public final LoaderRecord record;
+
+        public Mutation(Op op, LoaderRecord record) {
+            this.op = op;
+            this.record = record;
+        }
+    }
+
+    /** Short name used in log messages. */
+    String name();
+
+    /** Whether this backend already holds data (used to decide on a one-time loaders.yml import). */
+    boolean hasData();
+
+    List<LoaderRecord> loadAll() throws IOException;
+
+    /**
+     * Persists one coalesced batch of mutations. {@code snapshot} yields the full live registry for
+     * backends that rewrite everything (or compact) instead of applying individual changes.
+     *
+     * @return bytes written to disk, or 0 if the backend cannot tell
+     */
+    long write(List<Mutation> batch, Supplier<Collection<LoaderRecord>> snapshot) throws IOException;
+
+    /** Replaces all stored data with {@code records}. */
+    void importAll(Collection<LoaderRecord> records) throws IOException;
+
+    /** Called once on shutdown after the final write, e.g. to fold a journal into a snapshot. */
+    default void compact(Collection<LoaderRecord> records) throws IOException {
+    }
+
+    List<LoaderRecord> findByOwner(UUID owner) throws IOException;
+
+    List<LoaderRecord> findByWorld(String world) throws IOException;
+
+    void close();
+}
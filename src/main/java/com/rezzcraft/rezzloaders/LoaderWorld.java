@@ -0,0 +1,35 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.UUID;
+
+/**
+ * The parts of the server {@link LoaderCore} depends on: worlds, plugin chunk tickets, player
+ * presence and tick times. {@link BukkitPlatform} implements it on a live server.
+ */
+public interface LoaderWorld {
+
+    boolean isWorldLoaded(String world);
+
+    /**
+     * Runs {@code task} on the thread that owns the chunk: inline if that is the current thread,
+     * otherwise soon after. Dropped if the world is not loaded.
+     */
+    void runAt(String world, int chunkX, int chunkZ, Runnable task);
+
+    /** Adds the plugin ticket; only called from the chunk's own thread ({@link #runAt}). */
+    void addChunkTicket(String world, int chunkX, int chunkZ);
+
+    /** Removes the plugin ticket; only called from the chunk's own thread ({@link #runAt}). */
+    void removeChunkTicket(String world, int chunkX, int chunkZ);
+
+    boolean isOnline(UUID player);
+
+    /**
+     * When an offline player was last online, in epoch milliseconds; 0 if never seen. Must not
+     * block a tick thread on disk reads.
+     */
+    long lastSeen(UUID player);
+
+    /** Mean duration in milliseconds of the last {@code ticks} completed server ticks. */
+    double recentMspt(int ticks);
+}
@@ -0,0 +1,61 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically writes {@link MetricsRegistry} in Prometheus text format to the data folder
+ * ({@code metrics.file}), for node-exporter's textfile collector. Gauges are read on the main (or
+ * global region) thread; the file is written off-thread via temp file + atomic move so scrapers never see a partial file.
+ */
+public class MetricsExporter {
+
+    private final JavaPlugin plugin;
+    private final BukkitPlatform platform;
+    private final MetricsRegistry metrics;
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+
+    public MetricsExporter(JavaPlugin plugin, BukkitPlatform platform, MetricsRegistry metrics) {
+        this.plugin = plugin;
+        this.platform = platform;
+        this.metrics = metrics;
+    }
+
+    /** Main thread: renders the metrics and hands the write to an async task. */
+    public void export() {
+        if (!writing.compareAndSet(false, true)) return; // previous write still running
+        StringBuilder sb = new StringBuilder(4096);
+        metrics.writePrometheus(sb);
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        File target = new File(plugin.getDataFolder(), plugin.getConfig().getString("metrics.file", "metrics.prom"));
+        platform.runAsync(() -> {
+            try {
+                write(target, bytes);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to write " + target.getName() + ": " + e.getMessage());
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    private static void write(File target, byte[] bytes) throws IOException {
+        File dir = target.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        Path tmp = target.toPath().resolveSibling(target.getName() + ".tmp");
+        Files.write(tmp, bytes);
+        try {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
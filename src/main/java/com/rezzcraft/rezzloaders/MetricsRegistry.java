@@ -0,0 +1,240 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Plugin-wide counters, gauges and fixed-bucket histograms.
+ *
+ * Metrics are registered once at startup; recording ({@link Counter#inc}, {@link Histogram#observe})
+ * only touches pre-allocated {@link LongAdder}s, so it is safe and allocation-free from any thread.
+ * {@link #writePrometheus} renders the Prometheus text exposition format.
+ */
+public class MetricsRegistry {
+
+    /** Latency buckets in seconds, from 10µs to 10s. */
+    public static final double[] LATENCY_BUCKETS = {0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 1.0, 10.0};
+
+    public abstract static class Metric {
+        final String name;
+        final String labels; // pre-rendered, e.g. action="shed"; empty for none
+        final String help;
+
+        Metric(String name, String labels, String help) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+        }
+
+        abstract String type();
+
+        abstract void write(StringBuilder out);
+
+        /** One-line human summary for /loader metrics. */
+        abstract String summary();
+
+        String series(String suffix, String extraLabel) {
+            String l = labels.isEmpty() ? extraLabel : (extraLabel.isEmpty() ? labels : labels + "," + extraLabel);
+            return name + suffix + (l.isEmpty() ? "" : "{" + l + "}");
+        }
+    }
+
+    public static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        Counter(String name, String labels, String help) {
+            super(name, labels, help);
+        }
+
+        public void inc() {
+            value.increment();
+        }
+
+        public void add(long n) {
+            value.add(n);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        String type() {
+            return "counter";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            out.append(series("", "")).append(' ').append(value.sum()).append('\n');
+        }
+
+        @Override
+        String summary() {
+            return Long.toString(value.sum());
+        }
+    }
+
+    public static final class Gauge extends Metric {
+        private final DoubleSupplier supplier;
+
+        Gauge(String name, String labels, String help, DoubleSupplier supplier) {
+            super(name, labels, help);
+            this.supplier = supplier;
+        }
+
+        @Override
+        String type() {
+            return "gauge";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            out.append(series("", "")).append(' ').append(format(supplier.getAsDouble())).append('\n');
+        }
+
+        @Override
+        String summary() {
+            return format(supplier.getAsDouble());
+        }
+    }
+
+    /**
+     * Cumulative histogram over fixed upper bounds. Values are recorded in raw units (nanoseconds
+     * for latencies) and exported divided by {@code scale}.
+     */
+    public static final class Histogram extends Metric {
+        private final double[] bounds;
+        private final long[] rawBounds;
+        private final double scale;
+        private final LongAdder[] buckets; // last one is +Inf
+        private final LongAdder sum = new LongAdder();
+
+        Histogram(String name, String labels, String help, double[] bounds, double scale) {
+            super(name, labels, help);
+            this.bounds = bounds.clone();
+            this.scale = scale;
+            this.rawBounds = new long[bounds.length];
+            for (int i = 0; i < bounds.length; i++) rawBounds[i] = Math.round(bounds[i] * scale);
+            this.buckets = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        public void observe(long raw) {
+            int i = 0;
+            while (i < rawBounds.length && raw > rawBounds[i]) i++;
+            buckets[i].increment();
+            sum.add(raw);
+        }
+
+        /** Records the time since {@code startNanos} (from {@link System#nanoTime()}). */
+        public void observeSince(long startNanos) {
+            observe(System.nanoTime() - startNanos);
+        }
+
+        public long count() {
+            long n = 0;
+            for (LongAdder b : buckets) n += b.sum();
+            return n;
+        }
+
+        @Override
+        String type() {
+            return "histogram";
+        }
+
+        @Override
+        void write(StringBuilder out) {
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                out.append(series("_bucket", "le=\"" + format(bounds[i]) + "\"")).append(' ').append(cumulative).append('\n');
+            }
+            cumulative += buckets[bounds.length].sum();
+            out.append(series("_bucket", "le=\"+Inf\"")).append(' ').append(cumulative).append('\n');
+            out.append(series("_sum", "")).append(' ').append(format(sum.sum() / scale)).append('\n');
+            out.append(series("_count", "")).append(' ').append(cumulative).append('\n');
+        }
+
+        @Override
+        String summary() {
+            long[] counts = new long[buckets.length];
+            long n = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                n += counts[i];
+            }
+            if (n == 0) return "count=0";
+            double mean = sum.sum() / scale / n;
+            // p99 as the upper bound of the bucket that contains it.
+            long target = (long) Math.ceil(n * 0.99);
+            long seen = 0;
+            String p99 = "+Inf";
+            for (int i = 0; i < bounds.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    p99 = format(bounds[i]);
+                    break;
+                }
+            }
+            return "count=" + n + " mean=" + format(mean) + " p99<=" + p99;
+        }
+    }
+
+    private final List<Metric> metrics = new ArrayList<>();
+
+    public synchronized Counter counter(String name, String help) {
+        return counter(name, "", help);
+    }
+
+    public synchronized Counter counter(String name, String labels, String help) {
+        Counter c = new Counter(name, labels, help);
+        metrics.add(c);
+        return c;
+    }
+
+    public synchronized void gauge(String name, String help, DoubleSupplier supplier) {
+        metrics.add(new Gauge(name, "", help, supplier));
+    }
+
+    /** Latency histogram; observe nanoseconds, exported in seconds. */
+    public synchronized Histogram latency(String name, String help) {
+        Histogram h = new Histogram(name, "", help, LATENCY_BUCKETS, 1_000_000_000.0);
+        metrics.add(h);
+        return h;
+    }
+
+    /** Histogram of plain values (sizes, counts) with the given upper bounds. */
+    public synchronized Histogram histogram(String name, String help, double... bounds) {
+        Histogram h = new Histogram(name, "", help, bounds, 1.0);
+        metrics.add(h);
+        return h;
+    }
+
+    /** Prometheus text format; HELP/TYPE are emitted once per metric name. */
+    public synchronized void writePrometheus(StringBuilder out) {
+        String last = null;
+        for (Metric m : metrics) {
+            if (!m.name.equals(last)) {
+                out.append("# HELP ").append(m.name).append(' ').append(m.help).append('\n');
+                out.append("# TYPE ").append(m.name).append(' ').append(m.type()).append('\n');
+                last = m.name;
+            }
+            m.write(out);
+        }
+    }
+
+    /** {@code name{labels} summary} lines for chat. */
+    public synchronized List<String> summaries() {
+        List<String> out = new ArrayList<>(metrics.size());
+        for (Metric m : metrics) out.add(m.series("", "") + " " + m.summary());
+        return out;
+    }
+
+    private static String format(double v) {
+        if (v == Math.rint(v) && Math.abs(v) < 1e15) return Long.toString((long) v);
+        return String.format(Locale.ROOT, "%.6g", v);
+    }
+}
@@ -0,0 +1,129 @@
+package com.rezzcraft.rezzloaders;
+
+/**
+ * Load controller driven by Paper's per-tick times rather than the 1-minute TPS average.
+ *
+ * Every {@code tps.sample-ticks} the mean MSPT of the ticks since the previous sample is recorded.
+ * A short window reacts to spikes, a long window confirms recovery, and a least-squares slope over
+ * the short window predicts MSPT {@code tps.predict-seconds} ahead so shedding can start before a
+ * farm actually pushes the server over budget. Separate shed/restore thresholds and cooldowns keep
+ * it from flapping. Tick times come from {@link LoaderWorld#recentMspt}. Main thread only.
+ */
+public class MsptGovernor {
+
+    public enum Action { NONE, SHED, SHED_ALL, RESTORE }
+
+    private final LoaderSettings settings;
+    private final LoaderWorld world;
+    private final LoaderClock clock;
+    private final int sampleTicks;
+    private final int shortSamples;
+    private final double[] samples; // ring buffer sized for the long window
+    private int head;
+    private int count;
+
+    private double shortMspt;
+    private double longMspt;
+    private double slope; // ms per second
+    private double predictedMspt;
+
+    private long lastShedMs;
+    private long lastRestoreMs;
+
+    public MsptGovernor(LoaderSettings settings, LoaderWorld world, LoaderClock clock) {
+        this.settings = settings;
+        this.world = world;
+        this.clock = clock;
+        this.sampleTicks = Math.max(1, settings.getInt("tps.sample-ticks", 20));
+        double perSecond = 20.0 / sampleTicks;
+        this.shortSamples = Math.max(2, (int) Math.round(settings.getDouble("tps.short-window-seconds", 5.0) * perSecond));
+        int longSamples = Math.max(shortSamples, (int) Math.round(settings.getDouble("tps.long-window-seconds", 60.0) * perSecond));
+        this.samples = new double[longSamples];
+    }
+
+    public int getSampleTicks() {
+        return sampleTicks;
+    }
+
+    /** Records one sample and returns what the controller wants done; call every {@link #getSampleTicks()}. */
+    public Action sample() {
+        push(world.recentMspt(sampleTicks));
+        if (count < shortSamples) return Action.NONE; // warming up
+
+        double shedMspt = settings.getDouble("tps.shed-mspt", 45.0);
+        double restoreMspt = settings.getDouble("tps.restore-mspt", 35.0);
+        double criticalMspt = settings.getDouble("tps.critical-mspt", 100.0);
+        long shedCooldownMs = (long) (settings.getDouble("tps.shed-cooldown-seconds", 5.0) * 1000L);
+        long restoreCooldownMs = (long) (settings.getDouble("tps.restore-cooldown-seconds", 20.0) * 1000L);
+        long now = clock.millis();
+
+        if (shortMspt >= criticalMspt) return Action.SHED_ALL;
+        if ((shortMspt >= shedMspt || predictedMspt >= shedMspt) && now - lastShedMs >= shedCooldownMs) {
+            return Action.SHED;
+        }
+        // Restoring needs both windows and the trend to agree, and a quiet period after any change.
+        if (shortMspt < restoreMspt && longMspt < restoreMspt && predictedMspt < restoreMspt
+                && now - Math.max(lastShedMs, lastRestoreMs) >= restoreCooldownMs) {
+            return Action.RESTORE;
+        }
+        return Action.NONE;
+    }
+
+    /** The caller acted on {@code action}; starts the matching cooldown. */
+    public void acted(Action action) {
+        long now = clock.millis();
+        switch (action) {
+            case SHED, SHED_ALL -> lastShedMs = now;
+            case RESTORE -> lastRestoreMs = now;
+            default -> {
+            }
+        }
+    }
+
+    public double shortMspt() {
+        return shortMspt;
+    }
+
+    public double longMspt() {
+        return longMspt;
+    }
+
+    /** MSPT trend over the short window, in milliseconds per second. */
+    public double slope() {
+        return slope;
+    }
+
+    public double predictedMspt() {
+        return predictedMspt;
+    }
+
+    private void push(double mspt) {
+        samples[head] = mspt;
+        head = (head + 1) % samples.length;
+        if (count < samples.length) count++;
+
+        double longSum = 0.0;
+        for (int i = 0; i < count; i++) longSum += samples[i];
+        longMspt = longSum / count;
+
+        // Least-squares slope over the short window; x is in seconds.
+        int n = Math.min(shortSamples, count);
+        double dt = sampleTicks / 20.0;
+        double sx = 0.0, sy = 0.0, sxx = 0.0, sxy = 0.0;
+        for (int i = 0; i < n; i++) {
+            double y = samples[Math.floorMod(head - n + i, samples.length)];
+            double x = i * dt;
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        shortMspt = sy / n;
+        double denom = n * sxx - sx * sx;
+        slope = denom > 0.0 ? (n * sxy - sx * sy) / denom : 0.0;
+
+        double predictSeconds = settings.getDouble("tps.predict-seconds", 5.0);
+        // Project from the end of the window, where the fitted line sits at mean + slope * (window / 2).
+        predictedMspt = shortMspt + slope * ((n - 1) * dt / 2.0 + predictSeconds);
+    }
+}
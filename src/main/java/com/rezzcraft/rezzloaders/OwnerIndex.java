@@ -0,0 +1,84 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Secondary index of loaders by owner with per-size counters, so limit checks and listings cost
+ * time in proportion to the owner's own loaders. Each owner's entry is immutable and replaced on
+ * change, so reads are lock-free; writers are serialized by the {@link LoaderCore} monitor.
+ */
+public final class OwnerIndex {
+
+    private static final class Entry {
+        final LoaderRecord[] loaders; // placement order
+        final int[] bySize;
+
+        Entry(LoaderRecord[] loaders, int[] bySize) {
+            this.loaders = loaders;
+            this.bySize = bySize;
+        }
+    }
+
+    private static final Entry EMPTY = new Entry(new LoaderRecord[0], new int[LoaderSize.values().length]);
+
+    private final Map<UUID, Entry> owners = new ConcurrentHashMap<>();
+
+    public void add(LoaderRecord rec) {
+        Entry e = owners.getOrDefault(rec.owner, EMPTY);
+        for (int i = 0; i < e.loaders.length; i++) {
+            if (e.loaders[i].id.equals(rec.id)) {
+                LoaderRecord[] loaders = e.loaders.clone();
+                loaders[i] = rec;
+                owners.put(rec.owner, new Entry(loaders, e.bySize));
+                return;
+            }
+        }
+        LoaderRecord[] loaders = Arrays.copyOf(e.loaders, e.loaders.length + 1);
+        loaders[loaders.length - 1] = rec;
+        int[] bySize = e.bySize.clone();
+        if (rec.size != null) bySize[rec.size.ordinal()]++;
+        owners.put(rec.owner, new Entry(loaders, bySize));
+    }
+
+    public void remove(LoaderRecord rec) {
+        Entry e = owners.get(rec.owner);
+        if (e == null) return;
+        for (int i = 0; i < e.loaders.length; i++) {
+            LoaderRecord removed = e.loaders[i];
+            if (!removed.id.equals(rec.id)) continue;
+            if (e.loaders.length == 1) {
+                owners.remove(rec.owner);
+                return;
+            }
+            LoaderRecord[] loaders = new LoaderRecord[e.loaders.length - 1];
+            System.arraycopy(e.loaders, 0, loaders, 0, i);
+            System.arraycopy(e.loaders, i + 1, loaders, i, e.loaders.length - i - 1);
+            int[] bySize = e.bySize.clone();
+            if (removed.size != null) bySize[removed.size.ordinal()]--;
+            owners.put(rec.owner, new Entry(loaders, bySize));
+            return;
+        }
+    }
+
+    public int count(UUID owner) {
+        return owners.getOrDefault(owner, EMPTY).loaders.length;
+    }
+
+    public int count(UUID owner, LoaderSize size) {
+        return size == null ? 0 : owners.getOrDefault(owner, EMPTY).bySize[size.ordinal()];
+    }
+
+    /** Copy of the owner's loaders in placement order. */
+    public List<LoaderRecord> list(UUID owner) {
+        return new ArrayList<>(Arrays.asList(owners.getOrDefault(owner, EMPTY).loaders));
+    }
+
+    public void clear() {
+        owners.clear();
+    }
+}
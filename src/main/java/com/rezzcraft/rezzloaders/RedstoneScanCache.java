@@ -0,0 +1,150 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-chunk list of the blocks a refresh actually needs to touch: hoppers, comparators, and
+ * containers a comparator may read (next to one, or through a solid block).
+ *
+ * Chunks are scanned off the main thread from a {@link ChunkSnapshot}; results are cached until
+ * {@link #invalidate} is called for a relevant block change. Positions are packed as
+ * {@code (y - minY) << 8 | z << 4 | x}. {@link #get} must run on the thread that owns the chunk;
+ * the maps are concurrent so chunks in different regions can be served at once.
+ */
+public class RedstoneScanCache {
+
+    private static final Set<Material> CONTAINERS = EnumSet.of(
+            Material.CHEST, Material.TRAPPED_CHEST, Material.BARREL, Material.DROPPER, Material.DISPENSER,
+            Material.FURNACE, Material.BLAST_FURNACE, Material.SMOKER, Material.BREWING_STAND, Material.CRAFTER);
+
+    private static final class Scan {
+        volatile int[] positions; // null while the scan is running
+    }
+
+    private final BukkitPlatform platform;
+    private final Map<String, Map<Long, Scan>> byWorld = new ConcurrentHashMap<>();
+    private final LongAdder scansStarted = new LongAdder();
+
+    public RedstoneScanCache(RezzLoadersPlugin plugin) {
+        this.platform = plugin.getPlatform();
+    }
+
+    /** True for block types a refresh may touch, and whose placement or removal invalidates a scan. */
+    public static boolean isRelevant(Material type) {
+        return type == Material.HOPPER || type == Material.COMPARATOR || isContainer(type);
+    }
+
+    static boolean isContainer(Material type) {
+        return CONTAINERS.contains(type) || Tag.SHULKER_BOXES.isTagged(type);
+    }
+
+    /**
+     * Cached positions for a loaded chunk, or null while its scan is still running (a scan is
+     * started on the first call).
+     */
+    public int[] get(World w, int chunkX, int chunkZ) {
+        Map<Long, Scan> chunks = byWorld.computeIfAbsent(w.getName(), k -> new ConcurrentHashMap<>());
+        long key = key(chunkX, chunkZ);
+        Scan scan = chunks.get(key);
+        if (scan == null) {
+            scan = new Scan();
+            if (chunks.putIfAbsent(key, scan) != null) return null;
+            scansStarted.increment();
+            ChunkSnapshot snapshot = w.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+            int minY = w.getMinHeight();
+            int sections = (w.getMaxHeight() - minY) >> 4;
+            Scan target = scan;
+            // An invalidated scan is dropped from the map, so a late result can never be served.
+            platform.runAsync(() -> target.positions = scan(snapshot, minY, sections));
+            return null;
+        }
+        return scan.positions;
+    }
+
+    public void invalidate(String world, int chunkX, int chunkZ) {
+        Map<Long, Scan> chunks = byWorld.get(world);
+        if (chunks == null) return;
+        // Empty per-world maps are kept; dropping one could race with a concurrent get().
+        chunks.remove(key(chunkX, chunkZ));
+    }
+
+    public void clear() {
+        byWorld.clear();
+    }
+
+    public int size() {
+        int n = 0;
+        for (Map<Long, Scan> chunks : byWorld.values()) n += chunks.size();
+        return n;
+    }
+
+    public long scansStarted() {
+        return scansStarted.sum();
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xffffffffL);
+    }
+
+    private static int[] scan(ChunkSnapshot snap, int minY, int sections) {
+        int[] out = new int[16];
+        int n = 0;
+        for (int s = 0; s < sections; s++) {
+            if (snap.isSectionEmpty(s)) continue;
+            for (int ry = s << 4; ry < (s + 1) << 4; ry++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        Material type = snap.getBlockType(x, minY + ry, z);
+                        boolean hit = type == Material.HOPPER || type == Material.COMPARATOR
+                                || (isContainer(type) && comparatorAdjacent(snap, x, minY + ry, z, minY, minY + (sections << 4)));
+                        if (!hit) continue;
+                        if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                        out[n++] = (ry << 8) | (z << 4) | x;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Whether a comparator may read the container: one on any of the six sides, or one reading it
+     * horizontally through a solid block. The snapshot ends at the chunk border, so a neighbour
+     * (or the block behind a solid neighbour) in the next chunk counts as a comparator.
+     */
+    private static boolean comparatorAdjacent(ChunkSnapshot snap, int x, int y, int z, int minY, int maxY) {
+        return readsFrom(snap, x, y, z, -1, 0)
+                || readsFrom(snap, x, y, z, 1, 0)
+                || readsFrom(snap, x, y, z, 0, -1)
+                || readsFrom(snap, x, y, z, 0, 1)
+                || (y > minY && snap.getBlockType(x, y - 1, z) == Material.COMPARATOR)
+                || (y + 1 < maxY && snap.getBlockType(x, y + 1, z) == Material.COMPARATOR);
+    }
+
+    /** Comparator at one step in direction (dx, dz), or at two steps behind a solid block. */
+    private static boolean readsFrom(ChunkSnapshot snap, int x, int y, int z, int dx, int dz) {
+        int x1 = x + dx;
+        int z1 = z + dz;
+        if (!inChunk(x1, z1)) return true;
+        Material next = snap.getBlockType(x1, y, z1);
+        if (next == Material.COMPARATOR) return true;
+        if (!next.isOccluding()) return false;
+        int x2 = x1 + dx;
+        int z2 = z1 + dz;
+        return !inChunk(x2, z2) || snap.getBlockType(x2, y, z2) == Material.COMPARATOR;
+    }
+
+    private static boolean inChunk(int x, int z) {
+        return x >= 0 && x < 16 && z >= 0 && z < 16;
+    }
+}
@@ -0,0 +1,286 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time-sliced "redstone nudge" for loader chunks that were just (re)loaded.
+ *
+ * Chunks are queued from {@code ChunkLoadEvent} only, so chunks that stayed resident while a
+ * loader's tickets were released and re-applied are left alone. Only the blocks found by
+ * {@link RedstoneScanCache} (hoppers, comparators and the containers they read) are touched.
+ * {@link #tick()} works through the queue until {@code refresh.budget-ms-per-tick} is used up,
+ * resuming mid-chunk on the next tick. A chunk that unloads before its turn is dropped, and one
+ * whose scan is not ready after {@code refresh.max-wait-ticks} is skipped.
+ *
+ * On a region-threaded server there is no single queue: each chunk's job is scheduled on the region
+ * that owns it and re-schedules itself a tick later while it waits or is out of budget. The budget
+ * then applies per region thread per tick instead of server-wide.
+ */
+public class RefreshScheduler {
+
+    private enum Step { DONE, WAITING, OUT_OF_BUDGET }
+
+    private static final class Job {
+        final String world;
+        final int chunkX;
+        final int chunkZ;
+        final long readyAtTick;
+        final long giveUpAtTick;
+        final long generation;
+        int[] positions; // scan result, once available
+        int pos;
+        long nanos; // main-thread time spent on this chunk so far
+
+        Job(String world, int chunkX, int chunkZ, long readyAtTick, long giveUpAtTick, long generation) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.readyAtTick = readyAtTick;
+            this.giveUpAtTick = giveUpAtTick;
+            this.generation = generation;
+        }
+    }
+
+    /** Refresh time a region thread has used in its current tick. */
+    private static final class RegionBudget {
+        long windowStart;
+        long used;
+    }
+
+    private final RezzLoadersPlugin plugin;
+    private final BukkitPlatform platform;
+    private final RedstoneScanCache scans;
+    private final ArrayDeque<Job> queue = new ArrayDeque<>(); // main thread only; unused when regionized
+    private final Map<String, Set<Long>> queued = new ConcurrentHashMap<>();
+    private final AtomicInteger regionJobs = new AtomicInteger();
+    private final ThreadLocal<RegionBudget> regionBudget = ThreadLocal.withInitial(RegionBudget::new);
+    private volatile long tick;
+    private volatile long generation;
+
+    // metrics
+    private volatile long lastTickNanos;
+    private volatile long maxTickNanos;
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder blocksRefreshed = new LongAdder();
+    private final LongAdder chunksRefreshed = new LongAdder();
+    private final LongAdder chunksSkipped = new LongAdder();
+    private final MetricsRegistry.Histogram chunkTime;
+    private final MetricsRegistry.Histogram tickTime;
+
+    public RefreshScheduler(RezzLoadersPlugin plugin) {
+        this.plugin = plugin;
+        this.platform = plugin.getPlatform();
+        this.scans = new RedstoneScanCache(plugin);
+        MetricsRegistry metrics = plugin.getMetrics();
+        this.chunkTime = metrics.latency("rezzloaders_refresh_chunk_seconds", "Main-thread time to refresh one chunk, summed across ticks.");
+        this.tickTime = metrics.latency("rezzloaders_refresh_tick_seconds", "Refresh time spent per tick with a non-empty queue.");
+        metrics.gauge("rezzloaders_refresh_backlog_chunks", "Chunks waiting for a refresh.", this::backlogChunks);
+    }
+
+    public RedstoneScanCache getScans() {
+        return scans;
+    }
+
+    /**
+     * Queues a refresh of one freshly loaded chunk; no-op if it is already pending. Called from the
+     * thread that loaded the chunk.
+     */
+    public void enqueue(String world, int chunkX, int chunkZ) {
+        long key = ((long) chunkX << 32) | (chunkZ & 0xffffffffL);
+        if (!queued.computeIfAbsent(world, k -> ConcurrentHashMap.newKeySet()).add(key)) return;
+        long delay = Math.max(1L, plugin.getConfig().getLong("refresh.delay-ticks", 1L));
+        long maxWait = Math.max(1L, plugin.getConfig().getLong("refresh.max-wait-ticks", 600L));
+        long now = tick;
+        Job job = new Job(world, chunkX, chunkZ, now + delay, now + delay + maxWait, generation);
+        if (BukkitPlatform.REGIONIZED) {
+            regionJobs.incrementAndGet();
+            platform.runAtLater(world, chunkX, chunkZ, () -> runOwned(job), delay);
+        } else {
+            queue.addLast(job);
+        }
+    }
+
+    public void clear() {
+        generation++;
+        queue.clear();
+        queued.clear();
+        scans.clear();
+    }
+
+    /** Runs every tick; spends at most the configured budget on queued refresh work. */
+    public void tick() {
+        tick++;
+        if (queue.isEmpty()) {
+            lastTickNanos = 0L;
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos();
+
+        // Each job is visited at most once per pass without progress, so a backlog of chunks
+        // waiting on their scan cannot spin for the whole budget.
+        int stalled = 0;
+        while (!queue.isEmpty() && stalled < queue.size() && System.nanoTime() < deadline) {
+            Job job = queue.pollFirst();
+            long jobStart = System.nanoTime();
+            Step step = advance(job, deadline);
+            job.nanos += System.nanoTime() - jobStart;
+            if (step == Step.DONE) {
+                finish(job);
+                stalled = 0;
+            } else if (step == Step.WAITING) {
+                queue.addLast(job);
+                stalled++;
+            } else {
+                queue.addFirst(job);
+                break;
+            }
+        }
+
+        long spent = System.nanoTime() - start;
+        tickTime.observe(spent);
+        lastTickNanos = spent;
+        totalNanos.add(spent);
+        if (spent > maxTickNanos) maxTickNanos = spent;
+    }
+
+    /**
+     * Regionized mode: advances one chunk's job on the thread that owns the chunk, within what is
+     * left of this thread's budget for the current tick, and re-schedules it if it is not done.
+     */
+    private void runOwned(Job job) {
+        if (job.generation != generation) {
+            regionJobs.decrementAndGet();
+            return;
+        }
+        long budgetNanos = budgetNanos();
+        long start = System.nanoTime();
+        RegionBudget budget = regionBudget.get();
+        if (start - budget.windowStart >= 50_000_000L) {
+            budget.windowStart = start;
+            budget.used = 0L;
+        }
+        Step step = budget.used < budgetNanos ? advance(job, start + budgetNanos - budget.used) : Step.OUT_OF_BUDGET;
+        long spent = System.nanoTime() - start;
+        budget.used += spent;
+        job.nanos += spent;
+        totalNanos.add(spent);
+        if (step == Step.DONE) {
+            finish(job);
+            regionJobs.decrementAndGet();
+        } else {
+            platform.runAtLater(job.world, job.chunkX, job.chunkZ, () -> runOwned(job), 1L);
+        }
+    }
+
+    private void finish(Job job) {
+        if (job.positions != null && job.pos == job.positions.length) chunkTime.observe(job.nanos);
+        // Empty per-world sets are kept; dropping one could race with a concurrent enqueue().
+        Set<Long> keys = queued.get(job.world);
+        if (keys != null) keys.remove(((long) job.chunkX << 32) | (job.chunkZ & 0xffffffffL));
+    }
+
+    private long budgetNanos() {
+        return (long) (Math.max(0.05, plugin.getConfig().getDouble("refresh.budget-ms-per-tick", 2.0)) * 1_000_000L);
+    }
+
+    private Step advance(Job job, long deadline) {
+        if (job.readyAtTick > tick) return Step.WAITING;
+        World w = Bukkit.getWorld(job.world);
+        if (w == null || !w.isChunkLoaded(job.chunkX, job.chunkZ)) {
+            // Unloaded again before its turn; the next load queues it afresh.
+            chunksSkipped.increment();
+            return Step.DONE;
+        }
+
+        if (job.positions == null) {
+            job.positions = scans.get(w, job.chunkX, job.chunkZ);
+            if (job.positions == null) {
+                if (tick < job.giveUpAtTick) return Step.WAITING;
+                chunksSkipped.increment();
+                return Step.DONE;
+            }
+        }
+
+        int baseX = job.chunkX << 4;
+        int baseZ = job.chunkZ << 4;
+        int minY = w.getMinHeight();
+        while (job.pos < job.positions.length) {
+            if (System.nanoTime() >= deadline) return Step.OUT_OF_BUDGET;
+            int p = job.positions[job.pos++];
+            refresh(w.getBlockAt(baseX + (p & 15), minY + (p >>> 8), baseZ + ((p >> 4) & 15)));
+            blocksRefreshed.increment();
+        }
+        chunksRefreshed.increment();
+        return Step.DONE;
+    }
+
+    private void refresh(Block b) {
+        // Best-effort only: never let this throw during tick.
+        try {
+            Material type = b.getType();
+            // The scan may be slightly behind the world; skip blocks that are no longer relevant.
+            if (!RedstoneScanCache.isRelevant(type)) return;
+            if (type != Material.COMPARATOR) {
+                // Refresh the tile entity (containers, hoppers) so its contents are re-read.
+                BlockState bs = b.getState();
+                bs.update(true, true);
+            }
+            // Nudge the block itself; physics wakes up comparators reading it.
+            nudgeBlock(b);
+        } catch (Throwable ignored) {
+            // ignore per-block
+        }
+    }
+
+    private void nudgeBlock(Block b) {
+        try {
+            BlockData data = b.getBlockData();
+            b.setBlockData(data, true); // applyPhysics=true
+        } catch (Throwable ignored) {
+            // ignore
+        }
+    }
+
+    public int backlogChunks() {
+        return BukkitPlatform.REGIONIZED ? regionJobs.get() : queue.size();
+    }
+
+    public double lastTickMs() {
+        return lastTickNanos / 1_000_000.0;
+    }
+
+    public double maxTickMs() {
+        return maxTickNanos / 1_000_000.0;
+    }
+
+    public double totalMs() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    public long blocksRefreshed() {
+        return blocksRefreshed.sum();
+    }
+
+    public long chunksRefreshed() {
+        return chunksRefreshed.sum();
+    }
+
+    public long chunksSkipped() {
+        return chunksSkipped.sum();
+    }
+
+}
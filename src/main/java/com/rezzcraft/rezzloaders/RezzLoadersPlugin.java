@@ -1,16 +1,22 @@
 package com.rezzcraft.rezzloaders;
 
 import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Locale;
+
 public class RezzLoadersPlugin extends JavaPlugin {
 
     public NamespacedKey KEY_ITEM;
     public NamespacedKey KEY_DURATION_SEC;
     public NamespacedKey KEY_SIZE;
+    public NamespacedKey KEY_HOLOGRAM;
 
     private LoaderManager loaderManager;
     private ActionLogger actionLogger;
+    private MetricsRegistry metrics;
+    private BukkitPlatform platform;
 
     @Override
     public void onEnable() {
@@ -19,7 +25,11 @@ public class RezzLoadersPlugin extends JavaPlugin {
         KEY_ITEM = new NamespacedKey(this, "loader_item");
         KEY_DURATION_SEC = new NamespacedKey(this, "duration_sec");
         KEY_SIZE = new NamespacedKey(this, "size");
+        KEY_HOLOGRAM = new NamespacedKey(this, "hologram_loader");
 
+        this.metrics = new MetricsRegistry();
+        this.platform = new BukkitPlatform(this);
+        platform.startTickSampling();
         this.actionLogger = new ActionLogger(this);
         this.loaderManager = new LoaderManager(this, actionLogger);
 
@@ -33,7 +43,47 @@ public class RezzLoadersPlugin extends JavaPlugin {
         loaderManager.loadAll();
         loaderManager.startTasks();
 
-        getLogger().info("RezzLoaders enabled.");
+        getLogger().info("RezzLoaders enabled" + (BukkitPlatform.REGIONIZED ? " (region-threaded scheduling)." : "."));
+    }
+
+    @Override
+    public void reloadConfig() {
+        super.reloadConfig();
+        mapLegacyTpsKeys(getConfig());
+    }
+
+    /**
+     * Before the MSPT governor, shedding was configured as {@code tps.min-tps} (suspend below this
+     * TPS) and {@code tps.hysteresis} (resume at min-tps + hysteresis). If a config still has them,
+     * their equivalents are used for any of {@code tps.shed-mspt}/{@code tps.restore-mspt} it does
+     * not set itself. The file is left untouched.
+     */
+    private void mapLegacyTpsKeys(FileConfiguration config) {
+        if (!config.isSet("tps.min-tps") && !config.isSet("tps.hysteresis")) return;
+        double minTps = config.getDouble("tps.min-tps", 18.0);
+        if (minTps <= 0.0) {
+            getLogger().warning("Ignoring tps.min-tps " + minTps + " (removed setting); using tps.shed-mspt and tps.restore-mspt.");
+            return;
+        }
+        double resumeTps = minTps + Math.max(0.0, config.getDouble("tps.hysteresis", 0.5));
+        // TPS never reports above 20, i.e. below 50 MSPT.
+        double shedMspt = 1000.0 / Math.min(20.0, minTps);
+        double restoreMspt = 1000.0 / Math.min(20.0, resumeTps);
+        if (!config.isSet("tps.shed-mspt")) config.set("tps.shed-mspt", shedMspt);
+        if (!config.isSet("tps.restore-mspt")) config.set("tps.restore-mspt", restoreMspt);
+        getLogger().warning(String.format(Locale.ROOT,
+                "config.yml uses the removed tps.min-tps/tps.hysteresis settings; running with tps.shed-mspt %.1f and tps.restore-mspt %.1f. "
+                        + "Replace them with those keys (see the default config.yml).",
+                config.getDouble("tps.shed-mspt"), config.getDouble("tps.restore-mspt")));
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /** Server access and thread dispatch; region-aware on Folia. */
+    public BukkitPlatform getPlatform() {
+        return platform;
     }
 
     @Override
@@ -0,0 +1,30 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Which loaders to suspend first when the server degrades: 5x5 before 1x1, then loaders whose
+ * owner is offline, then the highest measured cost, then the one holding the most time. Restoring
+ * walks the same order backwards.
+ */
+public final class ShedPolicy {
+
+    private ShedPolicy() {
+    }
+
+    /** {@code online} and {@code cost} are called on every comparison; pass precomputed lookups. */
+    public static Comparator<LoaderRecord> costliestFirst(Predicate<UUID> online, ToDoubleFunction<LoaderRecord> cost) {
+        return Comparator.<LoaderRecord>comparingInt(r -> -LoaderIndex.radiusOf(r))
+                .thenComparing(r -> online.test(r.owner))
+                .thenComparingDouble(r -> -cost.applyAsDouble(r))
+                .thenComparingLong(r -> -r.expiresAtMs);
+    }
+
+    /** How many loaders one shedding or restore step moves. */
+    public static int stepSize(int total, double stepPercent) {
+        return Math.max(1, (int) Math.ceil(total * Math.max(1.0, Math.min(100.0, stepPercent)) / 100.0));
+    }
+}
@@ -0,0 +1,226 @@
+package com.rezzcraft.rezzloaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Embedded SQLite storage (file-based, no server). Each write batch is one transaction of
+ * row-level inserts, deletes and updates, and owner/world queries are served from indexes.
+ * Uses the sqlite-jdbc driver bundled with Paper/Spigot servers.
+ */
+public class SqliteLoaderStore implements LoaderStore {
+
+    private static final String COLUMNS = "id, owner, world, x, y, z, size, created_at_ms, expires_at_ms";
+
+    private final File dbFile;
+    private final Logger logger;
+    private Connection connection;
+
+    public SqliteLoaderStore(File dbFile, Logger logger) {
+        this.dbFile = dbFile;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "sqlite";
+    }
+
+    /**
+     * True only if the table holds a row: the file alone is created by {@link #connection()} even when
+     * the loaders.yml import afterwards rolls back, and must not stop the next start from retrying.
+     */
+    @Override
+    public boolean hasData() {
+        if (!dbFile.exists()) return false;
+        try (Statement st = connection().createStatement();
+             ResultSet rs = st.executeQuery("SELECT 1 FROM loaders LIMIT 1")) {
+            return rs.next();
+        } catch (IOException | SQLException e) {
+            logger.warning("Failed to read loaders.db: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<LoaderRecord> loadAll() throws IOException {
+        return query("SELECT " + COLUMNS + " FROM loaders", null);
+    }
+
+    @Override
+    public long write(List<Mutation> batch, Supplier<Collection<LoaderRecord>> snapshot) throws IOException {
+        if (batch.isEmpty()) return 0L;
+        Connection c = connection();
+        try (PreparedStatement upsert = c.prepareStatement("INSERT OR REPLACE INTO loaders (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement delete = c.prepareStatement("DELETE FROM loaders WHERE id = ?");
+             PreparedStatement extend = c.prepareStatement("UPDATE loaders SET expires_at_ms = ? WHERE id = ?")) {
+            c.setAutoCommit(false);
+            for (Mutation m : batch) {
+                LoaderRecord r = m.record;
+                switch (m.op) {
+                    case ADD -> {
+                        bind(upsert, r);
+                        upsert.addBatch();
+                    }
+                    case REMOVE -> {
+                        delete.setString(1, r.id.toString());
+                        delete.addBatch();
+                    }
+                    case EXTEND -> {
+                        extend.setLong(1, r.expiresAtMs);
+                        extend.setString(2, r.id.toString());
+                        extend.addBatch();
+                    }
+                }
+            }
+            // Loader ids are never reused, so within one batch an id's ADD precedes its EXTENDs,
+            // which precede its REMOVE; running the statement batches in that order is equivalent
+            // to replaying the mutations one by one.
+            upsert.executeBatch();
+            extend.executeBatch();
+            delete.executeBatch();
+            c.commit();
+            return 0L; // page writes are SQLite's business
+        } catch (SQLException e) {
+            rollback(c);
+            throw new IOException("SQLite write failed: " + e.getMessage(), e);
+        } finally {
+            autoCommit(c);
+        }
+    }
+
+    @Override
+    public void importAll(Collection<LoaderRecord> records) throws IOException {
+        Connection c = connection();
+        try (Statement clear = c.createStatement();
+             PreparedStatement insert = c.prepareStatement("INSERT INTO loaders (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            c.setAutoCommit(false);
+            clear.executeUpdate("DELETE FROM loaders");
+            for (LoaderRecord r : records) {
+                bind(insert, r);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            c.commit();
+        } catch (SQLException e) {
+            rollback(c);
+            throw new IOException("SQLite import failed: " + e.getMessage(), e);
+        } finally {
+            autoCommit(c);
+        }
+    }
+
+    @Override
+    public List<LoaderRecord> findByOwner(UUID owner) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM loaders WHERE owner = ?", owner.toString());
+    }
+
+    @Override
+    public List<LoaderRecord> findByWorld(String world) throws IOException {
+        return query("SELECT " + COLUMNS + " FROM loaders WHERE world = ?", world);
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Failed to close loaders.db: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    private Connection connection() throws IOException {
+        if (connection != null) return connection;
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite driver not available on this server", e);
+        }
+        File dir = dbFile.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        try {
+            Connection c = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+            try (Statement st = c.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                st.execute("CREATE TABLE IF NOT EXISTS loaders ("
+                        + "id TEXT PRIMARY KEY, "
+                        + "owner TEXT NOT NULL, "
+                        + "world TEXT NOT NULL, "
+                        + "x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL, "
+                        + "size TEXT NOT NULL, "
+                        + "created_at_ms INTEGER NOT NULL, "
+                        + "expires_at_ms INTEGER NOT NULL)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_loaders_owner ON loaders (owner)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_loaders_world ON loaders (world)");
+            }
+            connection = c;
+            return c;
+        } catch (SQLException e) {
+            throw new IOException("Failed to open " + dbFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<LoaderRecord> query(String sql, String param) throws IOException {
+        List<LoaderRecord> out = new ArrayList<>();
+        try (PreparedStatement ps = connection().prepareStatement(sql)) {
+            if (param != null) ps.setString(1, param);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String key = rs.getString(1);
+                    try {
+                        LoaderSize size = LoaderSize.fromString(rs.getString(7));
+                        if (size == null) size = LoaderSize.ONE_BY_ONE;
+                        out.add(new LoaderRecord(UUID.fromString(key), UUID.fromString(rs.getString(2)), rs.getString(3),
+                                rs.getInt(4), rs.getInt(5), rs.getInt(6), size, rs.getLong(8), rs.getLong(9)));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("Failed to load loader entry: " + key + " - " + e.getMessage());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("SQLite query failed: " + e.getMessage(), e);
+        }
+        return out;
+    }
+
+    private static void bind(PreparedStatement ps, LoaderRecord r) throws SQLException {
+        ps.setString(1, r.id.toString());
+        ps.setString(2, r.owner.toString());
+        ps.setString(3, r.world);
+        ps.setInt(4, r.x);
+        ps.setInt(5, r.y);
+        ps.setInt(6, r.z);
+        ps.setString(7, r.size == LoaderSize.FIVE_BY_FIVE ? "5x5" : "1x1");
+        ps.setLong(8, r.createdAtMs);
+        ps.setLong(9, r.expiresAtMs);
+    }
+
+    private void rollback(Connection c) {
+        try {
+            c.rollback();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void autoCommit(Connection c) {
+        try {
+            c.setAutoCommit(true);
+        } catch (SQLException ignored) {
+        }
+    }
+}
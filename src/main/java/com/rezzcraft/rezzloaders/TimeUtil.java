@@ -20,6 +20,25 @@ public final class TimeUtil {
         return sb.toString().trim();
     }
 
+    /**
+     * Like {@link #formatDuration} but drops seconds once an hour or more remains, so the text only
+     * changes on minute boundaries for long durations.
+     */
+    public static String formatDurationCoarse(long ms) {
+        if (ms < 3_600_000L) return formatDuration(ms);
+        long totalMinutes = ms / 60_000L;
+        long minutes = totalMinutes % 60;
+        long totalHours = totalMinutes / 60;
+        long hours = totalHours % 24;
+        long days = totalHours / 24;
+
+        StringBuilder sb = new StringBuilder();
+        if (days > 0) sb.append(days).append('d').append(' ');
+        sb.append(hours).append('h').append(' ');
+        sb.append(minutes).append('m');
+        return sb.toString();
+    }
+
     public static Long parseDurationSeconds(String input) {
         if (input == null) return null;
         String s = input.trim().toLowerCase();
@@ -0,0 +1,137 @@
+package com.rezzcraft.rezzloaders;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * The original human-editable loaders.yml format. Every write rewrites the whole document (temp
+ * file + atomic move) and queries parse the whole file, so this suits small registries.
+ */
+public class YamlLoaderStore implements LoaderStore {
+
+    private final File dataFile;
+    private final Logger logger;
+
+    public YamlLoaderStore(File dataFile, Logger logger) {
+        this.dataFile = dataFile;
+        this.logger = logger;
+    }
+
+    @Override
+    public String name() {
+        return "yaml";
+    }
+
+    @Override
+    public boolean hasData() {
+        return dataFile.exists();
+    }
+
+    @Override
+    public List<LoaderRecord> loadAll() {
+        List<LoaderRecord> out = new ArrayList<>();
+        if (!dataFile.exists()) return out;
+
+        YamlConfiguration data = YamlConfiguration.loadConfiguration(dataFile);
+        ConfigurationSection sec = data.getConfigurationSection("loaders");
+        if (sec == null) return out;
+
+        for (String key : sec.getKeys(false)) {
+            try {
+                UUID id = UUID.fromString(key);
+                UUID owner = UUID.fromString(sec.getString(key + ".owner"));
+                String world = sec.getString(key + ".world");
+                int x = sec.getInt(key + ".x");
+                int y = sec.getInt(key + ".y");
+                int z = sec.getInt(key + ".z");
+                String sizeStr = sec.getString(key + ".size");
+                LoaderSize size = LoaderSize.fromString(sizeStr);
+                if (size == null) {
+                    // Backwards-compat / corruption guard: older data or manual edits may omit/invalid size.
+                    size = LoaderSize.ONE_BY_ONE;
+                    logger.warning("Loader " + id + " had missing/invalid size ('" + sizeStr + "'). Defaulting to 1x1.");
+                }
+                long created = sec.getLong(key + ".createdAtMs");
+                long expires = sec.getLong(key + ".expiresAtMs");
+
+                out.add(new LoaderRecord(id, owner, world, x, y, z, size, created, expires));
+            } catch (Exception e) {
+                logger.warning("Failed to load loader entry: " + key + " - " + e.getMessage());
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public long write(List<Mutation> batch, Supplier<Collection<LoaderRecord>> snapshot) throws IOException {
+        if (batch.isEmpty()) return 0L;
+        return writeFile(List.copyOf(snapshot.get()));
+    }
+
+    @Override
+    public void importAll(Collection<LoaderRecord> records) throws IOException {
+        writeFile(records);
+    }
+
+    private long writeFile(Collection<LoaderRecord> records) throws IOException {
+        YamlConfiguration data = new YamlConfiguration();
+        for (LoaderRecord r : records) {
+            String path = "loaders." + r.id;
+            data.set(path + ".owner", r.owner.toString());
+            data.set(path + ".world", r.world);
+            data.set(path + ".x", r.x);
+            data.set(path + ".y", r.y);
+            data.set(path + ".z", r.z);
+            // Store as user-friendly labels to avoid parsing issues across versions.
+            LoaderSize sz = (r.size != null ? r.size : LoaderSize.ONE_BY_ONE);
+            data.set(path + ".size", (sz == LoaderSize.FIVE_BY_FIVE ? "5x5" : "1x1"));
+            data.set(path + ".createdAtMs", r.createdAtMs);
+            data.set(path + ".expiresAtMs", r.expiresAtMs);
+        }
+        byte[] bytes = data.saveToString().getBytes(StandardCharsets.UTF_8);
+
+        File dir = dataFile.getParentFile();
+        if (dir != null && !dir.exists()) dir.mkdirs();
+        Path target = dataFile.toPath();
+        Path tmp = target.resolveSibling(dataFile.getName() + ".tmp");
+        Files.write(tmp, bytes);
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return bytes.length;
+    }
+
+    @Override
+    public List<LoaderRecord> findByOwner(UUID owner) {
+        List<LoaderRecord> out = new ArrayList<>();
+        for (LoaderRecord r : loadAll()) if (r.owner.equals(owner)) out.add(r);
+        return out;
+    }
+
+    @Override
+    public List<LoaderRecord> findByWorld(String world) {
+        List<LoaderRecord> out = new ArrayList<>();
+        for (LoaderRecord r : loadAll()) if (r.world.equals(world)) out.add(r);
+        return out;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,211 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays a synthetic workload against {@link LoaderCore} on a {@link SimulatedWorld} with virtual
+ * time: mass placement, a steady period, a tick-time spike that triggers shedding and the recovery
+ * ramp, a restart with the staged startup ramp, bulk admin operations, offline-owner parking, then
+ * mass expiry. Prints ticket-call counts, wall time and core metrics per phase.
+ *
+ * <pre>./gradlew simulate -PsimArgs="--loaders=100000 --seed=1"</pre>
+ */
+public final class LoadSimulation {
+
+    private static final String[] WORLDS = {"world", "world_nether", "world_the_end"};
+
+    private final SimulatedWorld world = new SimulatedWorld(WORLDS);
+    private final VirtualClock clock = new VirtualClock(1_700_000_000_000L);
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MapSettings settings = new MapSettings();
+    private final LoaderCore core;
+    private final Random rnd;
+
+    private long phaseStartNanos;
+    private long phaseAdds;
+    private long phaseRemoves;
+
+    private LoadSimulation(long seed, boolean verbose) {
+        this.rnd = new Random(seed);
+        Logger logger = Logger.getLogger("RezzLoadersSim");
+        if (!verbose) logger.setLevel(Level.WARNING);
+        LoaderCore.Listener listener = new LoaderCore.Listener() {
+            @Override
+            public void added(LoaderRecord rec) {
+            }
+
+            @Override
+            public void removed(LoaderRecord rec, String reason) {
+            }
+
+            @Override
+            public void event(String type, String details) {
+                if (verbose) System.out.println("  [" + type + "] " + details);
+            }
+        };
+        // No profiler outside a server; shedding falls back to size, owner presence and remaining time.
+        this.core = new LoaderCore(world, settings, clock, logger, metrics, listener, recs -> Map.of());
+    }
+
+    public static void main(String[] args) {
+        int loaders = 100_000;
+        long seed = 1L;
+        boolean verbose = false;
+        for (String arg : args) {
+            if (arg.startsWith("--loaders=")) loaders = Integer.parseInt(arg.substring(10));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.equals("--verbose")) verbose = true;
+            else {
+                System.err.println("Usage: LoadSimulation [--loaders=N] [--seed=S] [--verbose]");
+                System.exit(2);
+            }
+        }
+        new LoadSimulation(seed, verbose).run(loaders);
+    }
+
+    private void run(int count) {
+        core.start(clock);
+
+        begin("place " + count + " loaders");
+        int ownerCount = Math.max(1, count / 10);
+        List<UUID> owners = new ArrayList<>(ownerCount);
+        for (int i = 0; i < ownerCount; i++) {
+            UUID id = new UUID(rnd.nextLong(), rnd.nextLong());
+            owners.add(id);
+            boolean online = rnd.nextInt(10) == 0;
+            world.setOnline(id, online);
+            if (!online) world.setLastSeen(id, clock.millis() - rnd.nextInt(3 * 86_400) * 1000L);
+        }
+        int span = Math.max(256, (int) Math.sqrt(count) * 64);
+        for (int i = 0; i < count; i++) {
+            LoaderSize size = rnd.nextInt(5) == 0 ? LoaderSize.FIVE_BY_FIVE : LoaderSize.ONE_BY_ONE;
+            // Half the loaders come from one giveaway with the same duration; they expire together.
+            long seconds = rnd.nextBoolean() ? 86_400L : 3_600L + rnd.nextInt(7 * 86_400);
+            core.add(owners.get(rnd.nextInt(ownerCount)), WORLDS[rnd.nextInt(WORLDS.length)],
+                    rnd.nextInt(span) - span / 2, 64, rnd.nextInt(span) - span / 2, size, seconds);
+        }
+        end();
+
+        begin("steady 60s");
+        clock.runTicks(60 * 20);
+        end();
+
+        begin("tick-time spike +40ms for 30s");
+        world.setBaseMspt(55.0);
+        clock.runTicks(30 * 20);
+        end();
+
+        begin("recovery 5min");
+        world.setBaseMspt(15.0);
+        clock.runTicks(5 * 60 * 20);
+        end();
+
+        begin("restart: staged startup of " + core.size() + " stored loaders");
+        int ticks = restart();
+        end();
+        System.out.println("   ready after " + ticks + " ticks");
+
+        List<UUID> end = new ArrayList<>();
+        for (LoaderRecord r : core.getAll()) {
+            if (r.world.equals("world_the_end")) end.add(r.id);
+        }
+        begin("bulk suspend + resume " + end.size() + " loaders in world_the_end through the resume ramp");
+        core.holdAll(end, true);
+        core.holdAll(end, false);
+        ticks = 0;
+        while (core.getActivation().pending() > 0) {
+            clock.runTicks(1);
+            ticks++;
+        }
+        end();
+        System.out.println("   resumed after " + ticks + " ticks");
+
+        begin("bulk remove " + end.size() + " loaders in world_the_end, 500 per slice");
+        for (int i = 0; i < end.size(); i += 500) {
+            core.removeAll(end.subList(i, Math.min(end.size(), i + 500)), "bulk");
+            clock.runTicks(1);
+        }
+        end();
+
+        begin("parking on: owners offline for more than 1h");
+        settings.set("parking.enabled", true).set("parking.grace-minutes", 60L);
+        clock.runTicks(61 * 20);
+        end();
+        System.out.println("   parked " + core.getParkedCount());
+
+        begin("50 owners join");
+        int joined = 0;
+        for (int i = 0; i < owners.size() && joined < 50; i++) {
+            UUID owner = owners.get(i);
+            if (world.isOnline(owner) || core.countForOwner(owner) == 0) continue;
+            world.setOnline(owner, true);
+            core.unparkOwner(owner);
+            joined++;
+        }
+        clock.runTicks(60 * 20);
+        end();
+        System.out.println("   parked " + core.getParkedCount());
+
+        begin("restart with parking on: offline owners' loaders skip the startup ramp");
+        ticks = restart();
+        end();
+        System.out.println("   ready after " + ticks + " ticks, parked " + core.getParkedCount());
+
+        begin("mass expiry (jump 24h)");
+        clock.skip(86_400_000L);
+        clock.runTicks(40);
+        end();
+
+        begin("drain 2h");
+        for (int i = 0; i < 120; i++) {
+            clock.skip(60_000L);
+            clock.runTicks(40);
+        }
+        end();
+
+        core.stop();
+        System.out.println();
+        System.out.println("Metrics:");
+        for (String line : metrics.summaries()) System.out.println("  " + line);
+        System.out.println("Redundant ticket calls: " + world.redundantCalls());
+    }
+
+    /** Releases everything and loads copies of the current records as if read from storage; returns ticks until ready. */
+    private int restart() {
+        List<LoaderRecord> stored = new ArrayList<>(core.size());
+        for (LoaderRecord r : core.getAll()) {
+            stored.add(new LoaderRecord(r.id, r.owner, r.world, r.x, r.y, r.z, r.size, r.createdAtMs, r.expiresAtMs));
+        }
+        core.releaseAll();
+        core.beginLoading();
+        core.loadStaged(stored);
+        int ticks = 0;
+        while (!core.isReady() && ticks < 10 * 60 * 20) {
+            clock.runTicks(1);
+            ticks++;
+        }
+        return ticks;
+    }
+
+    private void begin(String name) {
+        System.out.println("== " + name);
+        phaseAdds = world.ticketAdds();
+        phaseRemoves = world.ticketRemoves();
+        phaseStartNanos = System.nanoTime();
+    }
+
+    private void end() {
+        double ms = (System.nanoTime() - phaseStartNanos) / 1_000_000.0;
+        System.out.println(String.format(Locale.ROOT,
+                "   wall %.1f ms | ticket adds %d, removes %d | loaders %d, suspended %d, pending %d | ticketed chunks %d | mspt %.1f",
+                ms, world.ticketAdds() - phaseAdds, world.ticketRemoves() - phaseRemoves, core.size(),
+                core.getSuspendedCount(), core.getActivation().pending(), world.ticketedChunks(), world.currentMspt()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** {@link LoaderSettings} over a plain map; unset keys fall back to the callers' defaults, as in config.yml. */
+public final class MapSettings implements LoaderSettings {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    public MapSettings set(String path, Object value) {
+        values.put(path, value);
+        return this;
+    }
+
+    @Override
+    public boolean getBoolean(String path, boolean def) {
+        Object v = values.get(path);
+        return v instanceof Boolean b ? b : def;
+    }
+
+    @Override
+    public int getInt(String path, int def) {
+        Object v = values.get(path);
+        return v instanceof Number n ? n.intValue() : def;
+    }
+
+    @Override
+    public long getLong(String path, long def) {
+        Object v = values.get(path);
+        return v instanceof Number n ? n.longValue() : def;
+    }
+
+    @Override
+    public double getDouble(String path, double def) {
+        Object v = values.get(path);
+        return v instanceof Number n ? n.doubleValue() : def;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<String> getStringList(String path) {
+        Object v = values.get(path);
+        return v instanceof List<?> l ? (List<String>) l : List.of();
+    }
+}
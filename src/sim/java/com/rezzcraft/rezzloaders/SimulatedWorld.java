@@ -0,0 +1,114 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory {@link LoaderWorld}. Tracks which chunks hold a ticket, counts ticket calls and flags
+ * redundant ones (adding a held ticket or removing a missing one). Tick time is modelled as a base
+ * MSPT plus a fixed cost per ticketed chunk, so shedding actually relieves the simulated server.
+ */
+public final class SimulatedWorld implements LoaderWorld {
+
+    private final Set<String> worlds = new HashSet<>();
+    private final Map<String, Set<Long>> ticketed = new HashMap<>();
+    private final Set<UUID> online = new HashSet<>();
+    private final Map<UUID, Long> lastSeen = new HashMap<>();
+    private int ticketedChunks;
+
+    private long ticketAdds;
+    private long ticketRemoves;
+    private long redundantCalls;
+
+    private double baseMspt = 15.0;
+    private double chunkCostMs = 0.00003;
+
+    public SimulatedWorld(String... worldNames) {
+        for (String w : worldNames) worlds.add(w);
+    }
+
+    public void setOnline(UUID player, boolean isOnline) {
+        if (isOnline) online.add(player);
+        else online.remove(player);
+    }
+
+    public void setLastSeen(UUID player, long epochMs) {
+        lastSeen.put(player, epochMs);
+    }
+
+    public void setBaseMspt(double mspt) {
+        this.baseMspt = mspt;
+    }
+
+    public void setChunkCostMs(double ms) {
+        this.chunkCostMs = ms;
+    }
+
+    @Override
+    public boolean isWorldLoaded(String world) {
+        return worlds.contains(world);
+    }
+
+    /** Single-threaded: every chunk is owned by the caller. */
+    @Override
+    public void runAt(String world, int chunkX, int chunkZ, Runnable task) {
+        if (worlds.contains(world)) task.run();
+    }
+
+    @Override
+    public void addChunkTicket(String world, int chunkX, int chunkZ) {
+        ticketAdds++;
+        if (ticketed.computeIfAbsent(world, k -> new HashSet<>()).add(key(chunkX, chunkZ))) ticketedChunks++;
+        else redundantCalls++;
+    }
+
+    @Override
+    public void removeChunkTicket(String world, int chunkX, int chunkZ) {
+        ticketRemoves++;
+        Set<Long> keys = ticketed.get(world);
+        if (keys != null && keys.remove(key(chunkX, chunkZ))) ticketedChunks--;
+        else redundantCalls++;
+    }
+
+    @Override
+    public boolean isOnline(UUID player) {
+        return online.contains(player);
+    }
+
+    @Override
+    public long lastSeen(UUID player) {
+        return lastSeen.getOrDefault(player, 0L);
+    }
+
+    @Override
+    public double recentMspt(int ticks) {
+        return currentMspt();
+    }
+
+    public double currentMspt() {
+        return baseMspt + ticketedChunks * chunkCostMs;
+    }
+
+    public int ticketedChunks() {
+        return ticketedChunks;
+    }
+
+    public long ticketAdds() {
+        return ticketAdds;
+    }
+
+    public long ticketRemoves() {
+        return ticketRemoves;
+    }
+
+    public long redundantCalls() {
+        return redundantCalls;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,73 @@
+package com.rezzcraft.rezzloaders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Virtual time for simulations: a {@link LoaderClock} and a tick-driven {@link LoaderScheduler}.
+ * Time only moves in {@link #runTicks} (50 ms per tick, due tasks run in registration order) and
+ * {@link #skip}.
+ */
+public final class VirtualClock implements LoaderClock, LoaderScheduler {
+
+    private static final class Repeating implements Task {
+        final Runnable task;
+        final long period;
+        long nextTick;
+        boolean cancelled;
+
+        Repeating(Runnable task, long nextTick, long period) {
+            this.task = task;
+            this.nextTick = nextTick;
+            this.period = period;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final List<Repeating> tasks = new ArrayList<>();
+    private long millis;
+    private long tick;
+
+    public VirtualClock(long startMillis) {
+        this.millis = startMillis;
+    }
+
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    public long tick() {
+        return tick;
+    }
+
+    @Override
+    public Task repeat(Runnable task, long delayTicks, long periodTicks) {
+        Repeating r = new Repeating(task, tick + Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        tasks.add(r);
+        return r;
+    }
+
+    public void runTicks(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            tick++;
+            millis += 50L;
+            for (int t = 0; t < tasks.size(); t++) {
+                Repeating r = tasks.get(t);
+                if (r.cancelled || r.nextTick > tick) continue;
+                r.nextTick = tick + r.period;
+                r.task.run();
+            }
+            tasks.removeIf(r -> r.cancelled);
+        }
+    }
+
+    /** Jumps wall time forward without running any ticks. */
+    public void skip(long ms) {
+        millis += ms;
+    }
+}
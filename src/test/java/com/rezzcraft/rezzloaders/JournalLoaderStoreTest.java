@@ -0,0 +1,283 @@
+package com.rezzcraft.rezzloaders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalLoaderStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger("JournalLoaderStoreTest");
+    private static final long HEADER = 16;
+    private static final long RECORD = JournalLoaderStore.RECORD_SIZE;
+
+    @TempDir
+    Path dir;
+
+    private final List<LoaderRecord> live = new ArrayList<>();
+
+    @Test
+    void longWorldNameReplays() throws IOException {
+        String world = "worlds/" + "very_long_world_name_".repeat(8) + "ü";
+        JournalLoaderStore store = open();
+        LoaderRecord rec = record(world, 1);
+        write(store, add(rec));
+        store.close();
+
+        List<LoaderRecord> loaded = open().loadAll();
+        assertEquals(1, loaded.size());
+        assertEquals(world, loaded.get(0).world);
+    }
+
+    @Test
+    void longWorldNameDoesNotBlockLaterBatches() throws IOException {
+        String world = "x".repeat(500);
+        JournalLoaderStore store = open();
+        write(store, add(record(world, 1)), add(record("world", 2)));
+        write(store, add(record("world_nether", 3)), add(record(world, 4)));
+        store.close();
+
+        JournalLoaderStore reopened = open();
+        assertSame(live, reopened.loadAll());
+        // Appends after a reload reuse the long world's id.
+        write(reopened, add(record(world, 5)));
+        reopened.close();
+        assertSame(live, open().loadAll());
+    }
+
+    @Test
+    void longWorldNameSurvivesCompaction() throws IOException {
+        String world = "y".repeat(300);
+        JournalLoaderStore store = open();
+        write(store, add(record(world, 1)), add(record("world", 2)));
+        store.compact(List.copyOf(live));
+        write(store, add(record(world, 3)));
+        store.close();
+
+        assertSame(live, open().loadAll());
+    }
+
+    @Test
+    void roundTripAppliesAddExtendAndRemove() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        LoaderRecord b = record("world_nether", 2);
+        LoaderRecord c = record("world", 3);
+        write(store, add(a), add(b));
+        write(store, add(c), extend(a, 9_000_000L));
+        write(store, remove(b));
+        store.close();
+
+        List<LoaderRecord> loaded = open().loadAll();
+        assertSame(live, loaded);
+        assertEquals(9_000_000L, find(loaded, a.id).expiresAtMs);
+    }
+
+    @Test
+    void queriesSeeAppendedChanges() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        write(store, add(a), add(record("world_nether", 2)), add(record("world", 3)));
+        assertEquals(2, store.findByWorld("world").size());
+        assertEquals(1, store.findByOwner(a.owner).size());
+        store.close();
+    }
+
+    @Test
+    void corruptRecordEndsReplayAndIsTruncated() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        write(store, add(a));                       // world definition + a
+        write(store, add(record("world", 2)));
+        write(store, add(record("world", 3)));
+        store.close();
+
+        long corruptAt = HEADER + 2L * RECORD;       // the second loader's record
+        flipByte(journal(), corruptAt + 20);
+
+        JournalLoaderStore reopened = open();
+        List<LoaderRecord> loaded = reopened.loadAll();
+        assertSame(List.of(a), loaded);
+        assertEquals(corruptAt, Files.size(journal()));
+
+        // The repaired journal takes new appends.
+        write(reopened, add(record("world", 4)));
+        reopened.close();
+        assertEquals(2, open().loadAll().size());
+    }
+
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        write(store, add(a));
+        write(store, add(record("world", 2)));
+        store.close();
+
+        long size = Files.size(journal());
+        try (FileChannel ch = FileChannel.open(journal(), StandardOpenOption.WRITE)) {
+            ch.truncate(size - 30);
+        }
+
+        assertSame(List.of(a), open().loadAll());
+        assertEquals(size - RECORD, Files.size(journal()));
+    }
+
+    @Test
+    void tornLongWorldNameDropsOnlyTheTail() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        write(store, add(a));
+        write(store, add(record("z".repeat(200), 2)));  // three world records + the loader
+        store.close();
+
+        try (FileChannel ch = FileChannel.open(journal(), StandardOpenOption.WRITE)) {
+            ch.truncate(HEADER + 3L * RECORD + 10);      // inside the second world-name record
+        }
+
+        assertSame(List.of(a), open().loadAll());
+    }
+
+    @Test
+    void journalFromOlderGenerationIsIgnored() throws IOException {
+        JournalLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        LoaderRecord b = record("world", 2);
+        write(store, add(a), add(b));
+        byte[] oldJournal = Files.readAllBytes(journal());
+        write(store, remove(b));
+        store.compact(List.copyOf(live));
+        store.close();
+
+        // A crash between the snapshot move and the journal reset leaves the old generation behind.
+        Files.write(journal(), oldJournal);
+
+        assertSame(List.of(a), open().loadAll());
+        assertEquals(HEADER, Files.size(journal()));
+    }
+
+    @Test
+    void corruptSnapshotFailsLoad() throws IOException {
+        JournalLoaderStore store = open();
+        write(store, add(record("world", 1)));
+        store.compact(List.copyOf(live));
+        store.close();
+
+        Path snapshot = dir.resolve("loaders.snapshot");
+        flipByte(snapshot, Files.size(snapshot) - 10);
+
+        assertThrows(IOException.class, () -> open().loadAll());
+    }
+
+    @Test
+    void compactionThresholdStartsNewGeneration() throws IOException {
+        JournalLoaderStore store = new JournalLoaderStore(dir.toFile(), LOGGER, 3, Long.MAX_VALUE);
+        write(store, add(record("world", 1)), add(record("world", 2)));  // three records: compacts
+        assertEquals(HEADER, Files.size(journal()));
+        write(store, add(record("world", 3)));
+        store.close();
+
+        assertSame(live, open().loadAll());
+    }
+
+    @Test
+    void migratesLoadersYmlOnce() throws IOException {
+        File yml = dir.resolve("loaders.yml").toFile();
+        YamlLoaderStore yaml = new YamlLoaderStore(yml, LOGGER);
+        live.add(record("world", 1));
+        live.add(record("world_the_end", 2));
+        yaml.importAll(live);
+
+        JournalLoaderStore store = open();
+        assertEquals(2, LoaderPersistence.migrateFromYaml(store, yml, LOGGER));
+        assertFalse(yml.exists());
+        assertTrue(dir.resolve("loaders.yml.migrated").toFile().exists());
+        assertSame(live, store.loadAll());
+        store.close();
+
+        // Once the journal holds data, a loaders.yml that reappears is left alone.
+        yaml.importAll(List.of(record("world", 3)));
+        JournalLoaderStore again = open();
+        assertEquals(-1, LoaderPersistence.migrateFromYaml(again, yml, LOGGER));
+        assertSame(live, again.loadAll());
+        again.close();
+    }
+
+    private JournalLoaderStore open() {
+        return new JournalLoaderStore(dir.toFile(), LOGGER, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private void write(JournalLoaderStore store, LoaderStore.Mutation... batch) throws IOException {
+        store.write(List.of(batch), () -> List.copyOf(live));
+    }
+
+    private LoaderStore.Mutation add(LoaderRecord rec) {
+        live.add(rec);
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.ADD, rec);
+    }
+
+    private LoaderStore.Mutation extend(LoaderRecord rec, long expiresAtMs) {
+        LoaderRecord extended = new LoaderRecord(rec.id, rec.owner, rec.world, rec.x, rec.y, rec.z, rec.size, rec.createdAtMs, expiresAtMs);
+        live.set(live.indexOf(rec), extended);
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.EXTEND, extended);
+    }
+
+    private LoaderStore.Mutation remove(LoaderRecord rec) {
+        live.remove(rec);
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.REMOVE, rec);
+    }
+
+    private Path journal() {
+        return dir.resolve("loaders.journal");
+    }
+
+    private static LoaderRecord find(List<LoaderRecord> records, UUID id) {
+        for (LoaderRecord r : records) if (r.id.equals(id)) return r;
+        throw new AssertionError("missing loader " + id);
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0x5A)).rewind();
+            ch.write(b, position);
+        }
+    }
+
+    private static LoaderRecord record(String world, int n) {
+        return new LoaderRecord(new UUID(0L, n), new UUID(1L, n), world, n * 16, 64, -n * 16,
+                n % 2 == 0 ? LoaderSize.FIVE_BY_FIVE : LoaderSize.ONE_BY_ONE, 1_000L * n, 2_000_000L + n);
+    }
+
+    /** Same loaders with the same stored fields, in any order. */
+    static void assertSame(List<LoaderRecord> expected, List<LoaderRecord> actual) {
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    private static List<String> describe(List<LoaderRecord> records) {
+        List<String> out = new ArrayList<>();
+        for (LoaderRecord r : records) {
+            out.add(r.id + " " + r.owner + " " + r.world + " " + r.x + "," + r.y + "," + r.z + " " + r.size
+                    + " " + r.createdAtMs + " " + r.expiresAtMs);
+        }
+        out.sort(Comparator.naturalOrder());
+        return out;
+    }
+}
@@ -0,0 +1,136 @@
+package com.rezzcraft.rezzloaders;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static com.rezzcraft.rezzloaders.JournalLoaderStoreTest.assertSame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqliteLoaderStoreTest {
+
+    private static final Logger LOGGER = Logger.getLogger("SqliteLoaderStoreTest");
+
+    @TempDir
+    Path dir;
+
+    private final List<LoaderRecord> live = new ArrayList<>();
+
+    @Test
+    void roundTripAppliesAddExtendAndRemove() throws IOException {
+        SqliteLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        LoaderRecord b = record("world_nether", 2);
+        write(store, add(a), add(b));
+        write(store, add(record("world", 3)), extend(a, 9_000_000L));
+        write(store, remove(b));
+        store.close();
+
+        SqliteLoaderStore reopened = open();
+        assertTrue(reopened.hasData());
+        assertSame(live, reopened.loadAll());
+        reopened.close();
+    }
+
+    @Test
+    void batchAppliesUpsertThenExtendThenDelete() throws IOException {
+        SqliteLoaderStore store = open();
+        LoaderRecord kept = record("world", 1);
+        LoaderRecord gone = record("world", 2);
+        // Each id's changes in one batch, in the order the registry produces them.
+        write(store, add(kept), add(gone), extend(kept, 5_000_000L), extend(gone, 6_000_000L), remove(gone));
+
+        List<LoaderRecord> loaded = store.loadAll();
+        assertSame(live, loaded);
+        assertEquals(5_000_000L, loaded.get(0).expiresAtMs);
+        store.close();
+    }
+
+    @Test
+    void queriesUseStoredColumns() throws IOException {
+        SqliteLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        write(store, add(a), add(record("world_nether", 2)), add(record("world", 3)));
+        assertEquals(2, store.findByWorld("world").size());
+        assertSame(List.of(a), store.findByOwner(a.owner));
+        store.close();
+    }
+
+    @Test
+    void failedImportLeavesStoreEmpty() throws IOException {
+        SqliteLoaderStore store = open();
+        LoaderRecord a = record("world", 1);
+        // A duplicate id violates the primary key and rolls the whole import back.
+        assertThrows(IOException.class, () -> store.importAll(List.of(a, a)));
+        assertFalse(store.hasData());
+        assertTrue(store.loadAll().isEmpty());
+        store.close();
+    }
+
+    @Test
+    void migratesLoadersYmlOnce() throws IOException {
+        File yml = dir.resolve("loaders.yml").toFile();
+        YamlLoaderStore yaml = new YamlLoaderStore(yml, LOGGER);
+        live.add(record("world", 1));
+        live.add(record("world_the_end", 2));
+        yaml.importAll(live);
+
+        SqliteLoaderStore store = open();
+        assertFalse(store.hasData());
+        assertEquals(2, LoaderPersistence.migrateFromYaml(store, yml, LOGGER));
+        assertFalse(yml.exists());
+        assertTrue(dir.resolve("loaders.yml.migrated").toFile().exists());
+        assertSame(live, store.loadAll());
+        store.close();
+
+        yaml.importAll(List.of(record("world", 3)));
+        SqliteLoaderStore again = open();
+        assertEquals(-1, LoaderPersistence.migrateFromYaml(again, yml, LOGGER));
+        assertSame(live, again.loadAll());
+        again.close();
+    }
+
+    private SqliteLoaderStore open() {
+        return new SqliteLoaderStore(dir.resolve("loaders.db").toFile(), LOGGER);
+    }
+
+    private void write(SqliteLoaderStore store, LoaderStore.Mutation... batch) throws IOException {
+        store.write(List.of(batch), () -> List.copyOf(live));
+    }
+
+    private LoaderStore.Mutation add(LoaderRecord rec) {
+        live.add(rec);
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.ADD, rec);
+    }
+
+    private LoaderStore.Mutation extend(LoaderRecord rec, long expiresAtMs) {
+        LoaderRecord extended = new LoaderRecord(rec.id, rec.owner, rec.world, rec.x, rec.y, rec.z, rec.size, rec.createdAtMs, expiresAtMs);
+        live.set(live.indexOf(find(rec.id)), extended);
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.EXTEND, extended);
+    }
+
+    private LoaderStore.Mutation remove(LoaderRecord rec) {
+        live.remove(find(rec.id));
+        return new LoaderStore.Mutation(LoaderStore.Mutation.Op.REMOVE, rec);
+    }
+
+    private LoaderRecord find(UUID id) {
+        for (LoaderRecord r : live) if (r.id.equals(id)) return r;
+        throw new AssertionError("missing loader " + id);
+    }
+
+    private static LoaderRecord record(String world, int n) {
+        return new LoaderRecord(new UUID(0L, n), new UUID(1L, n), world, n * 16, 64, -n * 16,
+                n % 2 == 0 ? LoaderSize.FIVE_BY_FIVE : LoaderSize.ONE_BY_ONE, 1_000L * n, 2_000_000L + n);
+    }
+}